@@ -0,0 +1,108 @@
+package com.example.sb.demo.benchmark;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.example.sb.demo.service.RegistrationService;
+import com.example.sb.demo.service.UserSearchIndex;
+
+/**
+ * Production-like volumes for benchmarks and load tests: {@value #USERS}
+ * students (password "secret"), {@value #EVENTS} events spread over two years
+ * around today and {@value #REGISTRATIONS_PER_EVENT} registrations per event.
+ *
+ * Rows are inserted with JDBC batches so seeding takes seconds, then the seat
+ * counters and the user search index are brought up to date.
+ */
+final class BenchmarkData {
+
+    static final int USERS = 20_000;
+    static final int EVENTS = 2_000;
+    static final int REGISTRATIONS_PER_EVENT = 50;
+    static final String PASSWORD = "secret";
+
+    private static final int BATCH = 1_000;
+    private static final String[] STATUSES = {"PENDING", "APPROVED", "APPROVED", "REJECTED"};
+
+    private final JdbcTemplate jdbc;
+    private final LocalDateTime now;
+
+    private BenchmarkData(JdbcTemplate jdbc, LocalDateTime now) {
+        this.jdbc = jdbc;
+        this.now = now;
+    }
+
+    /** Seeds an empty schema; user 1 is "bench-admin", students are "student2" onwards. */
+    static void seed(ConfigurableApplicationContext context, LocalDateTime now) {
+        BenchmarkData data = new BenchmarkData(context.getBean(JdbcTemplate.class), now);
+        data.seedUsers();
+        data.seedEvents();
+        data.seedRegistrations();
+
+        context.getBean(RegistrationService.class).resyncSeatCounters();
+        context.getBean(UserSearchIndex.class).catchUp();
+    }
+
+    private void seedUsers() {
+        String sql = "INSERT INTO users (id, username, password, email, role, full_name, department) "
+                + "VALUES (?, ?, ?, ?, ?, ?, ?)";
+        List<Object[]> rows = new ArrayList<>();
+        rows.add(new Object[] {1L, "bench-admin", PASSWORD, "admin@bench.test", "ADMIN", "Bench Admin", "Administration"});
+        for (long id = 2; id <= USERS + 1; id++) {
+            rows.add(new Object[] {id, "student" + id, PASSWORD, "student" + id + "@bench.test", "STUDENT",
+                    "Student " + id, "Department " + (id % 12)});
+            flushIfFull(sql, rows);
+        }
+        jdbc.batchUpdate(sql, rows);
+        restartIdentity("users", USERS + 2);
+    }
+
+    private void seedEvents() {
+        String sql = "INSERT INTO events (id, title, description, event_date, venue, max_participants, "
+                + "registered_count, created_by, created_at, status) VALUES (?, ?, ?, ?, ?, ?, 0, 1, ?, 'APPROVED')";
+        List<Object[]> rows = new ArrayList<>();
+        for (long id = 1; id <= EVENTS; id++) {
+            // one event every ~9 hours, half of them in the past
+            LocalDateTime date = now.minusHours(9L * EVENTS / 2).plusHours(9L * id);
+            rows.add(new Object[] {id, "Event " + id, "Description of event " + id, Timestamp.valueOf(date),
+                    "Hall " + (id % 20), REGISTRATIONS_PER_EVENT * 4, Timestamp.valueOf(date.minusDays(30))});
+            flushIfFull(sql, rows);
+        }
+        jdbc.batchUpdate(sql, rows);
+        restartIdentity("events", EVENTS + 1);
+    }
+
+    private void seedRegistrations() {
+        String sql = "INSERT INTO registrations (id, event_id, user_id, registration_date, status) VALUES (?, ?, ?, ?, ?)";
+        List<Object[]> rows = new ArrayList<>();
+        long id = 1;
+        for (long event = 1; event <= EVENTS; event++) {
+            for (int i = 0; i < REGISTRATIONS_PER_EVENT; i++) {
+                long user = 2 + (event * 7 + i * 397L) % USERS;
+                rows.add(new Object[] {id, event, user, Timestamp.valueOf(now.minusMinutes(id)),
+                        STATUSES[(int) (id % STATUSES.length)]});
+                id++;
+                flushIfFull(sql, rows);
+            }
+        }
+        jdbc.batchUpdate(sql, rows);
+        // registration ids come from a pooled sequence (blocks of 50), so skip a block past the seeded rows
+        jdbc.execute("ALTER SEQUENCE registrations_seq RESTART WITH " + (id + 50));
+    }
+
+    private void flushIfFull(String sql, List<Object[]> rows) {
+        if (rows.size() >= BATCH) {
+            jdbc.batchUpdate(sql, rows);
+            rows.clear();
+        }
+    }
+
+    private void restartIdentity(String table, long next) {
+        jdbc.execute("ALTER TABLE " + table + " ALTER COLUMN id RESTART WITH " + next);
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.sb.demo.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.ui.ExtendedModelMap;
+import org.springframework.ui.Model;
+
+import com.example.sb.demo.controller.AdminController;
+import com.example.sb.demo.service.UserService;
+
+/**
+ * The data gathering behind /admin/dashboard: {@link AdminController#dashboard}
+ * invoked directly with an admin session, without view rendering.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class DashboardBenchmark {
+
+    private AdminController adminController;
+    private MockHttpSession session;
+
+    @Setup(Level.Trial)
+    public void setUp(SeededApplication app) {
+        adminController = app.bean(AdminController.class);
+        session = new MockHttpSession();
+        app.bean(UserService.class).login(session, app.admin);
+    }
+
+    @Benchmark
+    public Model dashboard() {
+        Model model = new ExtendedModelMap();
+        adminController.dashboard(model, session);
+        return model;
+    }
+}
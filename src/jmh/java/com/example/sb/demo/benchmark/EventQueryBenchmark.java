@@ -0,0 +1,54 @@
+package com.example.sb.demo.benchmark;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.example.sb.demo.entity.Event;
+import com.example.sb.demo.service.EventService;
+
+/**
+ * Event listing queries from {@link EventService}: all upcoming events and a
+ * one-month date range (about 80 of the seeded events).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class EventQueryBenchmark {
+
+    private EventService eventService;
+    private LocalDateTime rangeStart;
+    private LocalDateTime rangeEnd;
+
+    @Setup(Level.Trial)
+    public void setUp(SeededApplication app) {
+        eventService = app.bean(EventService.class);
+        rangeStart = app.now.plusDays(7);
+        rangeEnd = rangeStart.plusMonths(1);
+    }
+
+    @Benchmark
+    public List<Event> upcomingEvents() {
+        return eventService.getUpcomingEvents();
+    }
+
+    @Benchmark
+    public List<Event> eventsByDateRange() {
+        return eventService.getEventsByDateRange(rangeStart, rangeEnd);
+    }
+}
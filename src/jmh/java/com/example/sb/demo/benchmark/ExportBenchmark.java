@@ -0,0 +1,57 @@
+package com.example.sb.demo.benchmark;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.example.sb.demo.export.RegistrationExportWriter;
+import com.example.sb.demo.service.RegistrationService;
+
+/**
+ * {@link RegistrationService#exportRegistrations} of every seeded registration
+ * ({@value BenchmarkData#EVENTS} x {@value BenchmarkData#REGISTRATIONS_PER_EVENT}
+ * rows) and of a single event, written to a discarding stream.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ExportBenchmark {
+
+    @Param({"csv", "xlsx"})
+    private String format;
+
+    private RegistrationService registrationService;
+    private RegistrationExportWriter writer;
+
+    @Setup(Level.Trial)
+    public void setUp(SeededApplication app) {
+        registrationService = app.bean(RegistrationService.class);
+        writer = RegistrationExportWriter.forFormat(format);
+    }
+
+    @Benchmark
+    public void exportAll() throws IOException {
+        registrationService.exportRegistrations(null, writer, OutputStream.nullOutputStream());
+    }
+
+    @Benchmark
+    public void exportOneEvent() throws IOException {
+        registrationService.exportRegistrations(1L, writer, OutputStream.nullOutputStream());
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.sb.demo.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.springframework.data.domain.Pageable;
+
+import com.example.sb.demo.entity.Event;
+import com.example.sb.demo.entity.Registration;
+import com.example.sb.demo.entity.User;
+import com.example.sb.demo.repository.EventRepository;
+import com.example.sb.demo.repository.UserRepository;
+import com.example.sb.demo.service.RegistrationService;
+
+/**
+ * {@link RegistrationService#registerForEvent} on uncapped events, one thread
+ * versus eight threads racing for the same event's seat counter row.
+ *
+ * Every invocation uses a fresh (event, student) pair: students are walked in
+ * order and the next event is taken once all of them are registered.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class RegistrationBenchmark {
+
+    private static final int TARGET_EVENTS = 100;
+
+    private RegistrationService registrationService;
+    private List<Event> events;
+    private List<User> students;
+    private final AtomicLong sequence = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void setUp(SeededApplication app) {
+        registrationService = app.bean(RegistrationService.class);
+        students = app.bean(UserRepository.class).findByRole("STUDENT", Pageable.unpaged()).getContent();
+
+        EventRepository eventRepository = app.bean(EventRepository.class);
+        events = new ArrayList<>();
+        for (int i = 0; i < TARGET_EVENTS; i++) {
+            Event event = new Event();
+            event.setTitle("Registration target " + i);
+            event.setDescription("Uncapped event used by RegistrationBenchmark");
+            event.setVenue("Main Hall");
+            event.setEventDate(app.now.plusDays(60));
+            event.setCreatedBy(app.admin);
+            event.setStatus("APPROVED");
+            events.add(eventRepository.save(event));
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Registration registerSingleThreaded() {
+        return registerNext();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public Registration registerContended() {
+        return registerNext();
+    }
+
+    private Registration registerNext() {
+        long n = sequence.getAndIncrement();
+        Event event = events.get((int) (n / students.size()));
+        User student = students.get((int) (n % students.size()));
+        return registrationService.registerForEvent(event, student);
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.sb.demo.benchmark;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.sb.demo.entity.Event;
+import com.example.sb.demo.entity.Registration;
+import com.example.sb.demo.entity.User;
+import com.example.sb.demo.repository.EventRepository;
+import com.example.sb.demo.repository.RegistrationRepository;
+import com.example.sb.demo.repository.UserRepository;
+import com.example.sb.demo.service.RegistrationService;
+
+/**
+ * Latency of one registration: the original read-check-write path
+ * (findByEventAndUser, countByEvent, then save) against
+ * {@link RegistrationService#registerForEvent(Long, Long)}, which only issues
+ * the conditional seat UPDATE and the constraint-guarded INSERT.
+ *
+ * Events are capped high enough never to fill, and every invocation uses a
+ * fresh (event, student) pair, so both paths always succeed.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class RegistrationWriteBenchmark {
+
+    private static final int TARGET_EVENTS = 100;
+
+    private RegistrationService registrationService;
+    private RegistrationRepository registrationRepository;
+    private TransactionTemplate transactionTemplate;
+    private List<Event> events;
+    private List<User> students;
+    private long sequence;
+
+    @Setup(Level.Trial)
+    public void setUp(SeededApplication app) {
+        registrationService = app.bean(RegistrationService.class);
+        registrationRepository = app.bean(RegistrationRepository.class);
+        transactionTemplate = new TransactionTemplate(app.bean(PlatformTransactionManager.class));
+        students = app.bean(UserRepository.class).findByRole("STUDENT", Pageable.unpaged()).getContent();
+
+        EventRepository eventRepository = app.bean(EventRepository.class);
+        events = new ArrayList<>();
+        for (int i = 0; i < TARGET_EVENTS; i++) {
+            Event event = new Event();
+            event.setTitle("Write path target " + i);
+            event.setDescription("Event used by RegistrationWriteBenchmark");
+            event.setVenue("Main Hall");
+            event.setEventDate(app.now.plusDays(60));
+            event.setMaxParticipants(students.size());
+            event.setCreatedBy(app.admin);
+            event.setStatus("APPROVED");
+            events.add(eventRepository.save(event));
+        }
+    }
+
+    @Benchmark
+    public Registration legacyReadCheckWrite() {
+        Event event = nextEvent();
+        User student = nextStudent();
+        return transactionTemplate.execute(status -> {
+            if (registrationRepository.findByEventAndUser(event, student).isPresent()) {
+                throw new RuntimeException("You have already registered for this event");
+            }
+            long count = registrationRepository.countByEvent(event);
+            if (event.getMaxParticipants() != null && count >= event.getMaxParticipants()) {
+                throw new RuntimeException("Registration limit reached for this event");
+            }
+            Registration registration = new Registration();
+            registration.setEvent(event);
+            registration.setUser(student);
+            registration.setStatus("PENDING");
+            registration.setRegistrationDate(LocalDateTime.now());
+            return registrationRepository.save(registration);
+        });
+    }
+
+    @Benchmark
+    public Registration conditionalInsert() {
+        Event event = nextEvent();
+        User student = nextStudent();
+        return registrationService.registerForEvent(event.getId(), student.getId());
+    }
+
+    private Event nextEvent() {
+        return events.get((int) (sequence / students.size()));
+    }
+
+    private User nextStudent() {
+        return students.get((int) (sequence++ % students.size()));
+    }
+}
@@ -0,0 +1,219 @@
+package com.example.sb.demo.benchmark;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.example.sb.demo.DemoApplication;
+
+/**
+ * HTTP load test comparing request execution on Tomcat's platform-thread pool
+ * with virtual threads ({@code spring.threads.virtual.enabled}).
+ *
+ * For each mode the application is started on a random port with a fresh
+ * {@link BenchmarkData} database, every simulated student logs in once, and
+ * the clients then loop over one scenario at a time for a warm-up period and
+ * a measured period:
+ * <ul>
+ *   <li>{@code events}: GET /events (first page of the event list)</li>
+ *   <li>{@code register}: POST /events/{id}/register, each client walking
+ *       through the events in order</li>
+ * </ul>
+ * Throughput and p50/p95/p99/max latency are printed per mode and scenario.
+ *
+ * <pre>
+ * mvn -Pbenchmarks test-compile exec:exec@load-test
+ * mvn -Pbenchmarks test-compile exec:exec@load-test -Dloadtest.args="--clients=400 --duration=60 --tomcat-threads=50"
+ * </pre>
+ *
+ * Extra {@code --spring.*} arguments are passed to the application, e.g. to
+ * point it at a scratch MySQL database: the embedded H2 database answers in
+ * microseconds, so the gap between the modes is widest against a real server.
+ */
+public class RequestModeLoadTest {
+
+    private static final String[] MODES = {"platform", "virtual"};
+    private static final String[] SCENARIOS = {"events", "register"};
+
+    private final int clients;
+    private final Duration warmup;
+    private final Duration duration;
+    private final int tomcatThreads;
+    private final List<String> springArgs;
+
+    private final HttpClient http = HttpClient.newBuilder()
+            .followRedirects(HttpClient.Redirect.NEVER)
+            .connectTimeout(Duration.ofSeconds(10))
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .build();
+
+    private RequestModeLoadTest(Map<String, String> options, List<String> springArgs) {
+        this.clients = Integer.parseInt(options.getOrDefault("clients", "200"));
+        this.warmup = Duration.ofSeconds(Long.parseLong(options.getOrDefault("warmup", "10")));
+        this.duration = Duration.ofSeconds(Long.parseLong(options.getOrDefault("duration", "30")));
+        this.tomcatThreads = Integer.parseInt(options.getOrDefault("tomcat-threads", "200"));
+        this.springArgs = springArgs;
+    }
+
+    public static void main(String[] args) throws Exception {
+        // devtools is on the test classpath; its restarter would relaunch the app with the arguments twice
+        System.setProperty("spring.devtools.restart.enabled", "false");
+
+        Map<String, String> options = new LinkedHashMap<>();
+        List<String> springArgs = new ArrayList<>();
+        for (String arg : args) {
+            if (arg.startsWith("--spring.")) {
+                springArgs.add(arg);
+            } else if (arg.startsWith("--") && arg.contains("=")) {
+                options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+            }
+        }
+        String[] modes = options.getOrDefault("modes", String.join(",", MODES)).split(",");
+
+        RequestModeLoadTest test = new RequestModeLoadTest(options, springArgs);
+        List<String> report = new ArrayList<>();
+        for (String mode : modes) {
+            report.addAll(test.run(mode.trim()));
+        }
+
+        System.out.printf("%n%d clients, %ds measured after %ds warm-up, %d Tomcat threads%n",
+                test.clients, test.duration.toSeconds(), test.warmup.toSeconds(), test.tomcatThreads);
+        System.out.printf("%-9s %-9s %10s %9s %9s %9s %9s %8s%n",
+                "mode", "scenario", "req/s", "p50 ms", "p95 ms", "p99 ms", "max ms", "errors");
+        report.forEach(System.out::println);
+        System.exit(0);
+    }
+
+    private List<String> run(String mode) throws Exception {
+        List<String> args = new ArrayList<>(List.of(
+                "--server.port=0",
+                "--spring.threads.virtual.enabled=" + "virtual".equals(mode),
+                "--server.tomcat.threads.max=" + tomcatThreads,
+                // a separate in-memory database per mode, so both start from the same data
+                "--spring.datasource.url=jdbc:h2:mem:loadtest-" + mode
+                        + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1;NON_KEYWORDS=YEAR,USER,VALUE,KEY;LOCK_TIMEOUT=10000",
+                "--logging.level.root=WARN",
+                "--spring.main.banner-mode=off"));
+        args.addAll(springArgs);
+
+        List<String> rows = new ArrayList<>();
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(DemoApplication.class)
+                .run(args.toArray(String[]::new))) {
+            BenchmarkData.seed(context, LocalDateTime.now().withNano(0));
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            String base = "http://localhost:" + port;
+
+            List<String> sessions = login(base);
+            for (String scenario : SCENARIOS) {
+                drive(base, scenario, sessions, warmup);
+                Result result = drive(base, scenario, sessions, duration);
+                rows.add(result.format(mode, scenario, duration));
+            }
+        }
+        return rows;
+    }
+
+    /** Logs in one student per client and returns their SESSION cookies. */
+    private List<String> login(String base) throws Exception {
+        try (ExecutorService pool = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<String>> cookies = new ArrayList<>();
+            for (int i = 0; i < clients; i++) {
+                String username = "student" + (2 + i % BenchmarkData.USERS);
+                cookies.add(pool.submit(() -> {
+                    HttpResponse<Void> response = http.send(HttpRequest.newBuilder(URI.create(base + "/login"))
+                                    .header("Content-Type", "application/x-www-form-urlencoded")
+                                    .POST(HttpRequest.BodyPublishers.ofString(
+                                            "username=" + username + "&password=" + BenchmarkData.PASSWORD))
+                                    .build(),
+                            HttpResponse.BodyHandlers.discarding());
+                    return response.headers().allValues("Set-Cookie").stream()
+                            .filter(c -> c.startsWith("SESSION="))
+                            .map(c -> c.substring(0, c.indexOf(';')))
+                            .findFirst()
+                            .orElseThrow(() -> new IllegalStateException("Login failed for " + username));
+                }));
+            }
+            List<String> sessions = new ArrayList<>();
+            for (Future<String> cookie : cookies) {
+                sessions.add(cookie.get());
+            }
+            return sessions;
+        }
+    }
+
+    private Result drive(String base, String scenario, List<String> sessions, Duration length) throws Exception {
+        long deadline = System.nanoTime() + length.toNanos();
+        AtomicInteger errors = new AtomicInteger();
+        List<Future<long[]>> perClient = new ArrayList<>();
+
+        try (ExecutorService pool = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int c = 0; c < sessions.size(); c++) {
+                String cookie = sessions.get(c);
+                int client = c;
+                perClient.add(pool.submit(() -> {
+                    long[] latencies = new long[1024];
+                    int n = 0;
+                    long eventId = 1 + client % BenchmarkData.EVENTS;
+                    while (System.nanoTime() < deadline) {
+                        HttpRequest request = "events".equals(scenario)
+                                ? HttpRequest.newBuilder(URI.create(base + "/events")).header("Cookie", cookie).GET().build()
+                                : HttpRequest.newBuilder(URI.create(base + "/events/" + eventId + "/register"))
+                                        .header("Cookie", cookie)
+                                        .POST(HttpRequest.BodyPublishers.noBody())
+                                        .build();
+                        eventId = eventId % BenchmarkData.EVENTS + 1;
+
+                        long start = System.nanoTime();
+                        try {
+                            HttpResponse<Void> response = http.send(request, HttpResponse.BodyHandlers.discarding());
+                            if (response.statusCode() >= 400) errors.incrementAndGet();
+                        } catch (IOException e) {
+                            errors.incrementAndGet();
+                        }
+                        if (n == latencies.length) latencies = Arrays.copyOf(latencies, n * 2);
+                        latencies[n++] = System.nanoTime() - start;
+                    }
+                    return Arrays.copyOf(latencies, n);
+                }));
+            }
+        }
+
+        List<long[]> all = new ArrayList<>();
+        for (Future<long[]> f : perClient) {
+            all.add(f.get());
+        }
+        return new Result(all.stream().flatMapToLong(Arrays::stream).sorted().toArray(), errors.get());
+    }
+
+    private record Result(long[] sortedNanos, int errors) {
+
+        String format(String mode, String scenario, Duration duration) {
+            return String.format("%-9s %-9s %10.1f %9.1f %9.1f %9.1f %9.1f %8d",
+                    mode, scenario, sortedNanos.length / (double) duration.toSeconds(),
+                    millis(0.50), millis(0.95), millis(0.99), millis(1.0), errors);
+        }
+
+        private double millis(double percentile) {
+            if (sortedNanos.length == 0) return 0;
+            int index = (int) Math.min(sortedNanos.length - 1, Math.ceil(percentile * sortedNanos.length) - 1);
+            return sortedNanos[Math.max(index, 0)] / 1_000_000.0;
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.sb.demo.benchmark;
+
+import java.time.LocalDateTime;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.example.sb.demo.DemoApplication;
+import com.example.sb.demo.entity.User;
+import com.example.sb.demo.repository.UserRepository;
+
+/**
+ * Boots the application once per fork against the embedded H2 database from
+ * src/test/resources, seeded with {@link BenchmarkData}.
+ */
+@State(Scope.Benchmark)
+public class SeededApplication {
+
+    ConfigurableApplicationContext context;
+    User admin;
+    LocalDateTime now;
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = new SpringApplicationBuilder(DemoApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties("logging.level.root=WARN", "spring.main.banner-mode=off")
+                .run();
+        now = LocalDateTime.now().withNano(0);
+        BenchmarkData.seed(context, now);
+        admin = bean(UserRepository.class).findByUsername("bench-admin").orElseThrow();
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    <T> T bean(Class<T> type) {
+        return context.getBean(type);
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.sb.demo.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableAsync;
+
+/**
+ * Enables @Async methods. They run on Spring Boot's auto-configured
+ * applicationTaskExecutor, sized through spring.task.execution.* properties.
+ */
+@Configuration
+@EnableAsync
+public class AsyncConfig {
+}
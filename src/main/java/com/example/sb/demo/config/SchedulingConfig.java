@@ -0,0 +1,14 @@
+package com.example.sb.demo.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables @Scheduled methods (the report rollup flush and nightly rebuild). They
+ * run on Spring Boot's auto-configured taskScheduler, which the admission queue
+ * also uses for its dispatch tick when it is enabled.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -0,0 +1,131 @@
+package com.example.sb.demo.config;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.session.Session;
+import org.springframework.session.SessionRepository;
+import org.springframework.stereotype.Component;
+
+import com.example.sb.demo.dto.SessionUser;
+import com.example.sb.demo.entity.User;
+import com.example.sb.demo.repository.UserRepository;
+import com.example.sb.demo.service.UserService;
+
+/**
+ * Requests the busiest pages (home, events list, admin dashboard) a few times
+ * over HTTP before the application reports ready, so template parsing, JIT
+ * compilation, the connection pool and the in-memory caches are warm when
+ * real traffic arrives.
+ *
+ * Runners finish before ApplicationReadyEvent, and the readiness state only
+ * switches to ACCEPTING_TRAFFIC after that event, so a readiness probe keeps
+ * the instance out of the load balancer until the warm-up is done. The
+ * dashboard is requested through a short-lived session for the first admin
+ * account and skipped when there is none. Failures are logged, never fatal.
+ */
+@Component
+@ConditionalOnProperty(name = "app.warmup.enabled", havingValue = "true")
+public class WarmUpRunner implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(WarmUpRunner.class);
+
+    private final ApplicationContext context;
+    private final SessionRepository<? extends Session> sessionRepository;
+    private final UserRepository userRepository;
+    private final int iterations;
+
+    private final HttpClient http = HttpClient.newBuilder()
+            .followRedirects(HttpClient.Redirect.NEVER)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    public WarmUpRunner(ApplicationContext context,
+                        SessionRepository<? extends Session> sessionRepository,
+                        UserRepository userRepository,
+                        @Value("${app.warmup.iterations:3}") int iterations) {
+        this.context = context;
+        this.sessionRepository = sessionRepository;
+        this.userRepository = userRepository;
+        this.iterations = iterations;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        warmUp();
+    }
+
+    /** Requests each page {@code iterations} times; returns the paths that answered 200. */
+    public List<String> warmUp() {
+        if (!(context instanceof WebServerApplicationContext web) || web.getWebServer() == null) {
+            return List.of();
+        }
+        String base = "http://localhost:" + web.getWebServer().getPort();
+        long start = System.nanoTime();
+        List<String> warmed = new ArrayList<>();
+
+        warm(base, "/", null, warmed);
+        warm(base, "/events", null, warmed);
+
+        String sessionId = null;
+        try {
+            List<User> admins = userRepository.findByRole("ADMIN", PageRequest.of(0, 1)).getContent();
+            if (admins.isEmpty()) {
+                log.info("Warm-up: no admin account, skipping the dashboard");
+            } else {
+                sessionId = createSession(sessionRepository, SessionUser.of(admins.get(0)));
+                String cookie = "SESSION=" + Base64.getEncoder()
+                        .encodeToString(sessionId.getBytes(StandardCharsets.UTF_8));
+                warm(base, "/admin/dashboard", cookie, warmed);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Warm-up of the dashboard failed: {}", e.getMessage());
+        } finally {
+            if (sessionId != null) sessionRepository.deleteById(sessionId);
+        }
+
+        log.info("Warm-up of {} in {} ms", warmed, Duration.ofNanos(System.nanoTime() - start).toMillis());
+        return warmed;
+    }
+
+    private void warm(String base, String path, String cookie, List<String> warmed) {
+        boolean ok = true;
+        for (int i = 0; i < iterations; i++) {
+            try {
+                HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(base + path))
+                        .timeout(Duration.ofSeconds(30));
+                if (cookie != null) request.header("Cookie", cookie);
+                int status = http.send(request.build(), HttpResponse.BodyHandlers.discarding()).statusCode();
+                ok &= status == 200;
+            } catch (Exception e) {
+                if (e instanceof InterruptedException) Thread.currentThread().interrupt();
+                log.warn("Warm-up request to {} failed: {}", path, e.getMessage());
+                return;
+            }
+        }
+        if (ok) warmed.add(path);
+    }
+
+    private static <S extends Session> String createSession(SessionRepository<S> repository, SessionUser user) {
+        S session = repository.createSession();
+        session.setAttribute(UserService.SESSION_USER_KEY, user);
+        repository.save(session);
+        return session.getId();
+    }
+}
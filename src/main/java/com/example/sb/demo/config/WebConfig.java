@@ -0,0 +1,28 @@
+package com.example.sb.demo.config;
+
+import java.nio.file.Paths;
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.CacheControl;
+import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+    private final String uploadDir;
+
+    public WebConfig(@Value("${app.event.image.upload.dir}") String uploadDir) {
+        this.uploadDir = uploadDir;
+    }
+
+    /** Serves uploaded event images; processed files are content-addressed, so they can be cached for long. */
+    @Override
+    public void addResourceHandlers(ResourceHandlerRegistry registry) {
+        registry.addResourceHandler("/uploads/events/**")
+                .addResourceLocations(Paths.get(uploadDir).toAbsolutePath().toUri().toString())
+                .setCacheControl(CacheControl.maxAge(Duration.ofDays(30)).cachePublic());
+    }
+}
@@ -1,25 +1,32 @@
 package com.example.sb.demo.controller;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
-import java.util.stream.Collectors;
 
-import org.springframework.core.io.ByteArrayResource;
-import org.springframework.core.io.Resource;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
+import com.example.sb.demo.dto.RegistrationFilter;
 import com.example.sb.demo.entity.Event;
 import com.example.sb.demo.entity.Registration;
 import com.example.sb.demo.entity.User;
+import com.example.sb.demo.export.RegistrationExportWriter;
+import com.example.sb.demo.service.DashboardStatsService;
 import com.example.sb.demo.service.EventService;
 import com.example.sb.demo.service.RegistrationService;
+import com.example.sb.demo.service.ReportRollupService;
 import com.example.sb.demo.service.UserService;
 
 import jakarta.servlet.http.HttpSession;
@@ -28,17 +35,27 @@ import jakarta.servlet.http.HttpSession;
 @RequestMapping("/admin")
 public class AdminController {
 
+    private static final int USERS_PAGE_SIZE = 50;
+    private static final int REPORT_PAGE_SIZE = 50;
+    private static final int REGISTRATIONS_PAGE_SIZE = 50;
+
     private final UserService userService;
     private final EventService eventService;
     private final RegistrationService registrationService;
+    private final DashboardStatsService dashboardStatsService;
+    private final ReportRollupService reportRollupService;
 
     // ✅ Constructor Injection
     public AdminController(UserService userService,
                            EventService eventService,
-                           RegistrationService registrationService) {
+                           RegistrationService registrationService,
+                           DashboardStatsService dashboardStatsService,
+                           ReportRollupService reportRollupService) {
         this.userService = userService;
         this.eventService = eventService;
         this.registrationService = registrationService;
+        this.dashboardStatsService = dashboardStatsService;
+        this.reportRollupService = reportRollupService;
     }
 
     /** ✅ Ensure only admins can access routes */
@@ -55,7 +72,10 @@ public class AdminController {
             throw new RuntimeException("Access denied. Admin privileges required.");
         }
 
-        session.setAttribute("isAdmin", true);
+        // only write when missing: every attribute change is persisted to the session store
+        if (session.getAttribute("isAdmin") == null) {
+            session.setAttribute("isAdmin", true);
+        }
         return user;
     }
 
@@ -81,48 +101,13 @@ public class AdminController {
     public String dashboard(Model model, HttpSession session) {
         getCurrentAdmin(session);
 
-        List<Event> allEvents = eventService.getAllEvents();
-        List<Event> upcomingEvents = eventService.getUpcomingEvents();
-        List<Event> pastEvents = eventService.getPastEvents();
-        List<Registration> allRegistrations = registrationService.getAllRegistrations();
-        List<User> allUsers = userService.getAllUsers();
-
-        // Registration statistics
-        Map<String, Long> registrationStats = allRegistrations.stream()
-                .collect(Collectors.groupingBy(Registration::getStatus, Collectors.counting()));
-
-        // User statistics
-        Map<String, Long> userStats = allUsers.stream()
-                .collect(Collectors.groupingBy(User::getRole, Collectors.counting()));
-
-        // ✅ Summary Statistics
-        model.addAttribute("stats", Map.of(
-                "totalEvents", allEvents.size(),
-                "upcomingEvents", upcomingEvents.size(),
-                "pastEvents", pastEvents.size(),
-                "totalRegistrations", allRegistrations.size(),
-                "pendingRegistrations", registrationStats.getOrDefault("PENDING", 0L),
-                "approvedRegistrations", registrationStats.getOrDefault("APPROVED", 0L),
-                "rejectedRegistrations", registrationStats.getOrDefault("REJECTED", 0L),
-                "totalUsers", allUsers.size(),
-                "totalStudents", userStats.getOrDefault("STUDENT", 0L),
-                "totalAdmins", userStats.getOrDefault("ADMIN", 0L)
-        ));
+        // ✅ Summary Statistics (COUNT / GROUP BY queries, no table loads)
+        model.addAttribute("stats", dashboardStatsService.getSummaryStats());
 
         // ✅ Latest events and registrations
-        model.addAttribute("recentEvents",
-                allEvents.stream()
-                        .sorted(Comparator.comparing(Event::getCreatedAt, Comparator.nullsLast(Comparator.reverseOrder())))
-                        .limit(5)
-                        .collect(Collectors.toList()));
-
-        model.addAttribute("recentRegistrations",
-                allRegistrations.stream()
-                        .sorted(Comparator.comparing(Registration::getRegistrationDate, Comparator.nullsLast(Comparator.reverseOrder())))
-                        .limit(5)
-                        .collect(Collectors.toList()));
-
-        model.addAttribute("pendingApprovals", registrationService.getPendingRegistrations());
+        model.addAttribute("recentEvents", dashboardStatsService.getRecentEvents());
+        model.addAttribute("recentRegistrations", dashboardStatsService.getRecentRegistrations());
+        model.addAttribute("pendingApprovals", dashboardStatsService.getPendingApprovals());
 
         return "admin/dashboard";
     }
@@ -167,23 +152,12 @@ public class AdminController {
     @GetMapping("/users")
     public String manageUsers(Model model,
                               @RequestParam(required = false) String role,
-                              @RequestParam(required = false) String query) {
-        List<User> users = userService.getAllUsers();
-
-        if (role != null && !role.isEmpty()) {
-            users = users.stream().filter(u -> role.equals(u.getRole())).collect(Collectors.toList());
-        }
-
-        if (query != null && !query.isEmpty()) {
-            String searchQuery = query.toLowerCase();
-            users = users.stream()
-                    .filter(u -> u.getUsername().toLowerCase().contains(searchQuery)
-                            || u.getFullName().toLowerCase().contains(searchQuery)
-                            || u.getEmail().toLowerCase().contains(searchQuery))
-                    .collect(Collectors.toList());
-        }
+                              @RequestParam(required = false) String query,
+                              @RequestParam(defaultValue = "0") int page) {
+        Page<User> users = userService.searchUsers(query, role, page, USERS_PAGE_SIZE);
 
-        model.addAttribute("users", users);
+        model.addAttribute("users", users.getContent());
+        model.addAttribute("page", users);
         model.addAttribute("selectedRole", role);
         model.addAttribute("searchQuery", query);
         return "admin/users";
@@ -224,34 +198,43 @@ public class AdminController {
     public String viewRegistrations(@RequestParam(required = false) Long eventId,
                                     @RequestParam(required = false) String status,
                                     @RequestParam(required = false) String department,
+                                    @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                    @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                    @RequestParam(defaultValue = "registrationDate") String sort,
+                                    @RequestParam(defaultValue = "desc") String dir,
+                                    @RequestParam(defaultValue = "0") int page,
                                     Model model,
                                     HttpSession session) {
         getCurrentAdmin(session);
 
-        List<Registration> registrations = (eventId != null)
-                ? registrationService.getEventRegistrations(eventService.getEventById(eventId))
-                : registrationService.getAllRegistrations();
+        // ✅ Filtered, sorted and paged in the query, not in memory
+        RegistrationFilter filter = new RegistrationFilter(eventId, status, department, from, to);
+        Page<Registration> registrations = registrationService.searchRegistrations(filter,
+                PageRequest.of(Math.max(page, 0), REGISTRATIONS_PAGE_SIZE, registrationSort(sort, dir)));
 
-        if (status != null && !status.isEmpty()) {
-            registrations = registrations.stream().filter(r -> status.equals(r.getStatus())).collect(Collectors.toList());
-        }
-
-        if (department != null && !department.isEmpty()) {
-            registrations = registrations.stream()
-                    .filter(r -> r.getUser() != null && department.equals(r.getUser().getDepartment()))
-                    .collect(Collectors.toList());
-        }
-
-        model.addAttribute("registrations", registrations);
-        model.addAttribute("events", eventService.getAllEvents());
+        model.addAttribute("registrations", registrations.getContent());
+        model.addAttribute("page", registrations);
+        model.addAttribute("registrationsByDepartment", registrationService.getRegistrationCountsByDepartment(filter));
+        model.addAttribute("events", eventService.getEventOptions());
         model.addAttribute("selectedEvent", eventId);
         model.addAttribute("selectedStatus", status);
         model.addAttribute("selectedDepartment", department);
+        model.addAttribute("selectedFrom", from);
+        model.addAttribute("selectedTo", to);
+        model.addAttribute("selectedSort", sort);
+        model.addAttribute("selectedDir", dir);
         model.addAttribute("departments", userService.getAllDepartments());
 
         return "admin/registrations";
     }
 
+    /** Sort on an indexed column only; the id keeps pages stable when values tie. */
+    private static Sort registrationSort(String sort, String dir) {
+        String property = "status".equals(sort) ? "status" : "registrationDate";
+        Sort.Direction direction = "asc".equalsIgnoreCase(dir) ? Sort.Direction.ASC : Sort.Direction.DESC;
+        return Sort.by(direction, property).and(Sort.by(direction, "id"));
+    }
+
     /** ✅ Update registration status */
     @PostMapping("/registrations/{registrationId}/status")
     public String updateRegistrationStatus(@PathVariable Long registrationId,
@@ -269,43 +252,59 @@ public class AdminController {
         }
     }
 
-    /** ✅ Export registrations to CSV/XLSX */
-    @GetMapping("/registrations/export")
-    public ResponseEntity<Resource> exportRegistrations(@RequestParam(required = false) Long eventId,
-                                                        @RequestParam(required = false, defaultValue = "csv") String format) {
+    /** ✅ Bulk approve/reject: selected ids, or every registration of an event in a given status */
+    @PostMapping("/registrations/bulk-status")
+    public String updateRegistrationStatuses(@RequestParam(required = false) List<Long> ids,
+                                             @RequestParam(required = false) Long eventId,
+                                             @RequestParam(required = false) String currentStatus,
+                                             @RequestParam String status,
+                                             HttpSession session,
+                                             RedirectAttributes redirectAttributes) {
         try {
-            String filename = "registrations_" + LocalDateTime.now().format(
-                    DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss")) + "." + format;
+            User admin = getCurrentAdmin(session);
+            int updated = (ids != null && !ids.isEmpty())
+                    ? registrationService.updateRegistrationStatuses(ids, status, admin)
+                    : registrationService.updateRegistrationStatuses(eventId, currentStatus, status, admin);
+            redirectAttributes.addFlashAttribute("successMessage", updated + " registration(s) updated to " + status);
+        } catch (Exception e) {
+            redirectAttributes.addFlashAttribute("errorMessage", e.getMessage());
+        }
+        return "redirect:/admin/dashboard";
+    }
 
-            byte[] data = registrationService.exportRegistrations(eventId, format);
+    /** ✅ Export registrations to CSV/XLSX (streamed straight to the response) */
+    @GetMapping("/registrations/export")
+    public ResponseEntity<StreamingResponseBody> exportRegistrations(@RequestParam(required = false) Long eventId,
+                                                                     @RequestParam(required = false, defaultValue = "csv") String format,
+                                                                     HttpSession session) {
+        getCurrentAdmin(session);
 
-            MediaType mediaType = switch (format.toLowerCase()) {
-                case "xlsx" -> MediaType.parseMediaType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet");
-                case "csv" -> MediaType.TEXT_PLAIN;
-                default -> MediaType.APPLICATION_OCTET_STREAM;
-            };
+        RegistrationExportWriter writer = RegistrationExportWriter.forFormat(format);
+        String filename = "registrations_" + LocalDateTime.now().format(
+                DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss")) + "." + writer.getFileExtension();
 
-            return ResponseEntity.ok()
-                    .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + filename)
-                    .contentType(mediaType)
-                    .body(new ByteArrayResource(data));
+        StreamingResponseBody body = out -> registrationService.exportRegistrations(eventId, writer, out);
 
-        } catch (Exception e) {
-            throw new RuntimeException("Error exporting registrations: " + e.getMessage());
-        }
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + filename)
+                .contentType(MediaType.parseMediaType(writer.getContentType()))
+                .body(body);
     }
 
-    /** ✅ Reports */
+    /** ✅ Reports: breakdowns are summed from the daily rollups, detail lists are paged */
     @GetMapping("/reports")
     public String viewReports(Model model,
-                              @RequestParam(required = false) String type,
-                              @RequestParam(required = false) String period) {
-        LocalDateTime startDate = getStartDateForPeriod(period);
+                              @RequestParam(defaultValue = "events") String type,
+                              @RequestParam(defaultValue = "month") String period,
+                              @RequestParam(required = false) String cohort,
+                              @RequestParam(defaultValue = "0") int page) {
+        LocalDate from = getStartDateForPeriod(period).toLocalDate();
+        LocalDate to = LocalDate.now();
 
         Map<String, Object> reportData = switch (type) {
-            case "events" -> generateEventReport(startDate);
-            case "registrations" -> generateRegistrationReport(startDate);
-            case "users" -> generateUserReport(startDate);
+            case "events" -> generateEventReport(from, to, page);
+            case "registrations" -> generateRegistrationReport(from, to, page);
+            case "users" -> generateUserReport(from, to, cohortFor(cohort, period), page);
             default -> Map.of("error", "Invalid report type");
         };
 
@@ -326,33 +325,51 @@ public class AdminController {
         };
     }
 
-    private Map<String, Object> generateEventReport(LocalDateTime startDate) {
-        List<Event> events = eventService.getEventsByDateRange(startDate, LocalDateTime.now());
+    private Map<String, Object> generateEventReport(LocalDate from, LocalDate to, int page) {
+        Map<String, Long> byDepartment = reportRollupService.getTotals(ReportRollupService.EVENTS_BY_DEPARTMENT, from, to);
+        Page<Event> events = eventService.getEventsByDateRange(from.atStartOfDay(), LocalDateTime.now(), page, REPORT_PAGE_SIZE);
         return Map.of(
-                "totalEvents", events.size(),
-                "eventsData", events,
-                "eventsByDepartment", events.stream()
-                        .collect(Collectors.groupingBy(e -> e.getCreatedBy().getDepartment(), Collectors.counting()))
+                "totalEvents", sum(byDepartment),
+                "eventsData", events.getContent(),
+                "eventsByDepartment", byDepartment,
+                "page", events
         );
     }
 
-    private Map<String, Object> generateRegistrationReport(LocalDateTime startDate) {
-        List<Registration> registrations = registrationService.getRegistrationsByDateRange(startDate, LocalDateTime.now());
+    private Map<String, Object> generateRegistrationReport(LocalDate from, LocalDate to, int page) {
+        Map<String, Long> byStatus = reportRollupService.getTotals(ReportRollupService.REGISTRATIONS_BY_STATUS, from, to);
+        Page<Registration> registrations = registrationService.getRegistrationsByDateRange(
+                from.atStartOfDay(), LocalDateTime.now(), page, REPORT_PAGE_SIZE);
         return Map.of(
-                "totalRegistrations", registrations.size(),
-                "registrationsData", registrations,
-                "registrationsByStatus", registrations.stream()
-                        .collect(Collectors.groupingBy(Registration::getStatus, Collectors.counting()))
+                "totalRegistrations", sum(byStatus),
+                "registrationsData", registrations.getContent(),
+                "registrationsByStatus", byStatus,
+                "page", registrations
         );
     }
 
-    private Map<String, Object> generateUserReport(LocalDateTime startDate) {
-        List<User> users = userService.getUsersByDateRange(startDate, LocalDateTime.now());
+    private Map<String, Object> generateUserReport(LocalDate from, LocalDate to, String cohort, int page) {
+        Map<String, Long> byRole = reportRollupService.getTotals(ReportRollupService.SIGNUPS_BY_ROLE, from, to);
+        LocalDateTime start = from.atStartOfDay();
+        LocalDateTime now = LocalDateTime.now();
+        Page<User> users = userService.getUsersByDateRange(start, now, page, REPORT_PAGE_SIZE);
         return Map.of(
-                "totalUsers", users.size(),
-                "usersData", users,
-                "usersByRole", users.stream()
-                        .collect(Collectors.groupingBy(User::getRole, Collectors.counting()))
+                "totalUsers", sum(byRole),
+                "usersData", users.getContent(),
+                "usersByRole", byRole,
+                "usersByCohort", userService.getSignupCohorts(start, now, cohort),
+                "cohort", cohort,
+                "page", users
         );
     }
+
+    /** Weekly cohorts unless asked otherwise; a year's report defaults to monthly ones. */
+    private static String cohortFor(String cohort, String period) {
+        if ("week".equals(cohort) || "month".equals(cohort)) return cohort;
+        return "year".equals(period) ? "month" : "week";
+    }
+
+    private static long sum(Map<String, Long> totals) {
+        return totals.values().stream().mapToLong(Long::longValue).sum();
+    }
 }
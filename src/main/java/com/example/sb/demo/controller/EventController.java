@@ -1,27 +1,42 @@
 package com.example.sb.demo.controller;
 
-import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
-import java.nio.file.StandardCopyOption;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
-import java.util.UUID;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
 
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
+import org.springframework.util.DigestUtils;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.context.request.ServletWebRequest;
 import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
+import org.springframework.web.servlet.support.RequestContextUtils;
 
+import com.example.sb.demo.dto.EventPage;
+import com.example.sb.demo.dto.EventsVersion;
+import com.example.sb.demo.dto.QueueTicket;
+import com.example.sb.demo.dto.SessionUser;
 import com.example.sb.demo.entity.Event;
+import com.example.sb.demo.entity.Registration;
 import com.example.sb.demo.entity.User;
+import com.example.sb.demo.service.AdmissionQueue;
+import com.example.sb.demo.service.EventCardCache;
+import com.example.sb.demo.service.EventImageService;
 import com.example.sb.demo.service.EventService;
 import com.example.sb.demo.service.RegistrationService;
 import com.example.sb.demo.service.UserService;
@@ -34,13 +49,24 @@ public class EventController {
     private final EventService eventService;
     private final UserService userService;
     private final RegistrationService registrationService;
+    private final EventCardCache eventCardCache;
+    private final EventImageService eventImageService;
+    private final AdmissionQueue admissionQueue;
+
+    private static final int HOME_PAGE_SIZE = 6;
 
     public EventController(EventService eventService,
                            UserService userService,
-                           RegistrationService registrationService) {
+                           RegistrationService registrationService,
+                           EventCardCache eventCardCache,
+                           EventImageService eventImageService,
+                           AdmissionQueue admissionQueue) {
         this.eventService = eventService;
         this.userService = userService;
         this.registrationService = registrationService;
+        this.eventCardCache = eventCardCache;
+        this.eventImageService = eventImageService;
+        this.admissionQueue = admissionQueue;
     }
 
     private User getCurrentUser(HttpSession session) {
@@ -48,28 +74,73 @@ public class EventController {
                 .orElseThrow(() -> new SecurityException("Please log in first."));
     }
 
+    // ✅ Conditional GET: a weak ETag over the page's validator, answered with 304 when it matches.
+    // Skipped right after a redirect so flash messages are always rendered.
+    private boolean notModified(ServletWebRequest request, Object... validator) {
+        request.getResponse().setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noCache().cachePrivate().getHeaderValue());
+        Map<String, ?> flash = RequestContextUtils.getInputFlashMap(request.getRequest());
+        if (flash != null && !flash.isEmpty()) return false;
+        String hash = DigestUtils.md5DigestAsHex(Arrays.deepToString(validator).getBytes(StandardCharsets.UTF_8));
+        return request.checkNotModified("W/\"" + hash + "\"");
+    }
+
+    private static Object[] eventsVersion(EventsVersion version) {
+        return new Object[] { version.getCount(), version.getUpcoming(), version.getLastChanged(), version.getSeatChanges() };
+    }
+
+    private static Object[] userVersion(User user) {
+        return user == null ? null : new Object[] { user.getId(), user.getRole(), user.getFullName() };
+    }
+
     // ✅ Home Page
     @GetMapping("/")
-    public String home(Model model, HttpSession session) {
-        userService.getCurrentUser(session).ifPresent(user -> {
+    public String home(@RequestParam(required = false) String cursor,
+                       Model model, HttpSession session, ServletWebRequest request) {
+        Optional<User> currentUser = userService.getCurrentUser(session);
+        if (notModified(request, eventsVersion(eventService.getEventsVersion()),
+                userVersion(currentUser.orElse(null)), cursor)) {
+            return null;
+        }
+        currentUser.ifPresent(user -> {
             model.addAttribute("user", user);
             model.addAttribute("isAdmin", userService.isAdmin(user));
         });
-        model.addAttribute("upcomingEvents", eventService.getUpcomingEvents());
+        EventPage page = eventService.browseUpcomingEvents(cursor, HOME_PAGE_SIZE);
+        model.addAttribute("upcomingEvents", page.getEvents());
+        model.addAttribute("eventCards", eventCardCache.render(page.getEvents(), EventCardCache.HOME_CARD));
+        model.addAttribute("page", page);
         return "home";
     }
 
     // ✅ List all events (everyone can see)
     @GetMapping("/events")
-    public String listEvents(Model model, HttpSession session) {
-        userService.getCurrentUser(session).ifPresentOrElse(user -> {
+    public String listEvents(@RequestParam(required = false) String cursor,
+                             @RequestParam(defaultValue = "12") int size,
+                             Model model, HttpSession session, ServletWebRequest request) {
+        Optional<User> currentUser = userService.getCurrentUser(session);
+        EventPage page = eventService.browseEvents(cursor, size);
+        // ✅ One query for the whole page's "Registered" badges; they are part of the validator too,
+        // so a 304 costs the keyset page and this lookup, never the user's whole history
+        Map<Long, String> registrationStatuses = currentUser
+                .map(user -> registrationService.getRegistrationStatuses(user.getId(), page.getEvents()))
+                .orElse(Map.of());
+        // ✅ List cards show each creator's name, which can change without the event changing
+        List<String> creators = page.getEvents().stream().map(event -> event.getCreatedBy().getFullName()).toList();
+        if (notModified(request, eventsVersion(eventService.getEventsVersion()),
+                userVersion(currentUser.orElse(null)), new TreeMap<>(registrationStatuses), creators, cursor, size)) {
+            return null;
+        }
+
+        currentUser.ifPresentOrElse(user -> {
             model.addAttribute("user", user);
             model.addAttribute("isAdmin", userService.isAdmin(user));
-        }, () -> {
-            model.addAttribute("isAdmin", false);
-        });
+        }, () -> model.addAttribute("isAdmin", false));
+        model.addAttribute("registrationStatuses", registrationStatuses);
 
-        model.addAttribute("events", eventService.getAllEvents());
+        model.addAttribute("events", page.getEvents());
+        model.addAttribute("eventCards", eventCardCache.render(page.getEvents(), EventCardCache.LIST_CARD));
+        model.addAttribute("page", page);
+        model.addAttribute("pageSize", size);
         return "events/list";
     }
 
@@ -114,12 +185,17 @@ public class EventController {
             event.setMaxParticipants(maxParticipants);
             event.setEventDate(eventDateTime);
 
+            String imageHash = null;
             if (imageFile != null && !imageFile.isEmpty()) {
-                String imageUrl = handleImageUpload(imageFile);
-                event.setImageUrl(imageUrl);
+                imageHash = eventImageService.storeOriginal(imageFile);
+                event.setImageUrl(eventImageService.originalUrl(imageHash, imageFile));
             }
 
-            eventService.createEvent(event, user);
+            Event saved = eventService.createEvent(event, user);
+            if (imageHash != null) {
+                // ✅ Resizing runs in the background; the event shows the original until then
+                eventImageService.processAsync(saved.getId(), imageHash, saved.getImageUrl());
+            }
             redirectAttributes.addFlashAttribute("successMessage", "Event created successfully!");
             return "redirect:/events";
         } catch (Exception e) {
@@ -138,18 +214,6 @@ public class EventController {
         }
     }
 
-    private String handleImageUpload(MultipartFile file) throws IOException {
-        if (file.isEmpty()) return null;
-        String uploadDir = "uploads/events";
-        Path uploadPath = Paths.get(uploadDir);
-        if (!Files.exists(uploadPath)) Files.createDirectories(uploadPath);
-
-        String fileName = UUID.randomUUID() + "_" + file.getOriginalFilename();
-        Path filePath = uploadPath.resolve(fileName);
-        Files.copy(file.getInputStream(), filePath, StandardCopyOption.REPLACE_EXISTING);
-        return "/" + uploadDir + "/" + fileName;
-    }
-
     // ✅ Edit event (only creator or admin)
     @GetMapping("/events/{id}/edit")
     public String editEventForm(@PathVariable Long id, Model model, HttpSession session, RedirectAttributes redirectAttributes) {
@@ -205,13 +269,33 @@ public class EventController {
 
     // ✅ Show Registration Page
     @GetMapping("/events/{id}/register")
-    public String showRegistrationForm(@PathVariable Long id, Model model, HttpSession session, RedirectAttributes redirectAttributes) {
+    public String showRegistrationForm(@PathVariable Long id, Model model, HttpSession session,
+                                       ServletWebRequest request, RedirectAttributes redirectAttributes) {
         try {
             User user = getCurrentUser(session);
+            Optional<Registration> registration = registrationService.findRegistration(id, user.getId());
+            long waitlistPosition = registration.map(registrationService::getWaitlistPosition).orElse(0L);
+            Optional<QueueTicket> queueTicket = registration.isPresent()
+                    ? Optional.empty()
+                    : admissionQueue.findTicket(id, user.getId());
+
+            // ✅ Validated before the event is loaded; a missing event falls through to the error below
+            Optional<LocalDateTime> lastChanged = eventService.getLastChanged(id);
+            if (lastChanged.isPresent() && notModified(request, lastChanged.get(), userVersion(user),
+                    registration.map(r -> r.getId() + ":" + r.getStatus()).orElse(null), waitlistPosition,
+                    queueTicket.orElse(null))) {
+                return null;
+            }
+
             Event event = eventService.getEventById(id);
             model.addAttribute("event", event);
             model.addAttribute("user", user);
             model.addAttribute("isAdmin", userService.isAdmin(user));
+            registration.ifPresent(r -> {
+                model.addAttribute("registration", r);
+                model.addAttribute("waitlistPosition", waitlistPosition);
+            });
+            queueTicket.ifPresent(ticket -> model.addAttribute("queueTicket", ticket));
             return "events/register";
         } catch (SecurityException e) {
             redirectAttributes.addFlashAttribute("errorMessage", "Please log in to register for events.");
@@ -219,14 +303,56 @@ public class EventController {
         }
     }
 
-    // ✅ Register for event
+    // ✅ Register for event (through the admission queue when it is enabled)
     @PostMapping("/events/{id}/register")
     public String registerForEvent(@PathVariable Long id, HttpSession session, RedirectAttributes redirectAttributes) {
+        try {
+            SessionUser sessionUser = userService.getSessionUser(session)
+                    .orElseThrow(() -> new SecurityException("Please log in first."));
+            if (admissionQueue.isEnabled()) {
+                // ✅ No database work here: take a ticket and let the queue register in order
+                QueueTicket ticket = admissionQueue.enqueue(id, sessionUser.id());
+                redirectAttributes.addFlashAttribute("successMessage", "You are #" + ticket.position()
+                        + " in line. Registrations are processed in order; this page updates automatically.");
+                return "redirect:/events/" + id + "/register";
+            }
+
+            // ✅ Straight to the conditional insert; a missing event is reported by its foreign key
+            Registration registration = registrationService.registerForEvent(id, sessionUser.id());
+            if (RegistrationService.WAITLISTED.equals(registration.getStatus())) {
+                redirectAttributes.addFlashAttribute("successMessage", "This event is full. You are #"
+                        + registrationService.getWaitlistPosition(registration)
+                        + " on the waitlist and will get a seat automatically when one frees up.");
+            } else {
+                redirectAttributes.addFlashAttribute("successMessage", "Successfully registered for the event!");
+            }
+        } catch (Exception e) {
+            redirectAttributes.addFlashAttribute("errorMessage", e.getMessage());
+        }
+        return "redirect:/events/" + id + "/register";
+    }
+
+    // ✅ Poll own place in the registration queue (JSON)
+    @GetMapping("/events/{id}/queue")
+    public ResponseEntity<QueueTicket> queueStatus(@PathVariable Long id, HttpSession session) {
+        return userService.getSessionUser(session)
+                .map(user -> admissionQueue.findTicket(id, user.id())
+                        .map(ticket -> ResponseEntity.ok().cacheControl(CacheControl.noStore()).body(ticket))
+                        .orElseGet(() -> ResponseEntity.notFound().build()))
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.UNAUTHORIZED).build());
+    }
+
+    // ✅ Cancel own registration (or leave the waitlist)
+    @PostMapping("/events/{id}/cancel")
+    public String cancelRegistration(@PathVariable Long id, HttpSession session, RedirectAttributes redirectAttributes) {
         try {
             User user = getCurrentUser(session);
             Event event = eventService.getEventById(id);
-            registrationService.registerForEvent(event, user);
-            redirectAttributes.addFlashAttribute("successMessage", "Successfully registered for the event!");
+            Registration registration = registrationService.findRegistration(event, user)
+                    .orElseThrow(() -> new RuntimeException("You are not registered for this event"));
+            registrationService.cancelRegistration(registration.getId(), user);
+            admissionQueue.discard(id, user.getId());
+            redirectAttributes.addFlashAttribute("successMessage", "Your registration has been cancelled.");
         } catch (Exception e) {
             redirectAttributes.addFlashAttribute("errorMessage", e.getMessage());
         }
@@ -0,0 +1,10 @@
+package com.example.sb.demo.dto;
+
+import java.time.LocalDate;
+
+/** Row of a per-day, per-label "group by" count query, used to rebuild report rollups. */
+public interface DailyCount {
+    LocalDate getDate();
+    String getLabel();
+    long getTotal();
+}
@@ -0,0 +1,7 @@
+package com.example.sb.demo.dto;
+
+/** Id and title of an event, for select boxes. */
+public interface EventOption {
+    Long getId();
+    String getTitle();
+}
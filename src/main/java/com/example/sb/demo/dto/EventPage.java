@@ -0,0 +1,32 @@
+package com.example.sb.demo.dto;
+
+import java.util.List;
+
+import com.example.sb.demo.entity.Event;
+
+/**
+ * One page of a keyset-paginated event listing. {@code nextCursor} encodes the
+ * (eventDate, id) of the last row and is passed back to fetch the next page.
+ */
+public class EventPage {
+
+    private final List<Event> events;
+    private final String nextCursor;
+
+    public EventPage(List<Event> events, String nextCursor) {
+        this.events = events;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<Event> getEvents() {
+        return events;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public boolean isHasNext() {
+        return nextCursor != null;
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.sb.demo.dto;
+
+/** A user's registration status for one event. */
+public interface EventRegistrationStatus {
+    Long getEventId();
+    String getStatus();
+}
@@ -0,0 +1,15 @@
+package com.example.sb.demo.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Summary of the events table used as a validator for the public event pages:
+ * row count, upcoming count, latest edit and the sum of the seat counters'
+ * versions. Any change to what those pages show changes at least one of them.
+ */
+public interface EventsVersion {
+    Long getCount();
+    Long getUpcoming();
+    LocalDateTime getLastChanged();
+    Long getSeatChanges();
+}
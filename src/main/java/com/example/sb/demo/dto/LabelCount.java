@@ -0,0 +1,9 @@
+package com.example.sb.demo.dto;
+
+/**
+ * Projection for "GROUP BY" count queries, e.g. registrations per status.
+ */
+public interface LabelCount {
+    String getLabel();
+    Long getTotal();
+}
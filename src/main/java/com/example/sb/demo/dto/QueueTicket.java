@@ -0,0 +1,14 @@
+package com.example.sb.demo.dto;
+
+/**
+ * A user's place in an event's admission queue, as returned by the poll
+ * endpoint. {@code position} is 1 for the next ticket to be processed and 0
+ * once the ticket has left the queue; {@code state} is QUEUED, then
+ * REGISTERED, WAITLISTED or FAILED (with {@code message} saying why).
+ */
+public record QueueTicket(String ticket, Long eventId, String state, long position, String message) {
+
+    public boolean isQueued() {
+        return "QUEUED".equals(state);
+    }
+}
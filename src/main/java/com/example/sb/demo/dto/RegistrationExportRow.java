@@ -0,0 +1,41 @@
+package com.example.sb.demo.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Flat, read-only row for registration exports. Built directly by a JPQL
+ * constructor expression, so no entities end up in the persistence context.
+ */
+public class RegistrationExportRow {
+
+    private final Long registrationId;
+    private final Long eventId;
+    private final String eventTitle;
+    private final Long userId;
+    private final String username;
+    private final String email;
+    private final String status;
+    private final LocalDateTime registrationDate;
+
+    public RegistrationExportRow(Long registrationId, Long eventId, String eventTitle,
+                                 Long userId, String username, String email,
+                                 String status, LocalDateTime registrationDate) {
+        this.registrationId = registrationId;
+        this.eventId = eventId;
+        this.eventTitle = eventTitle;
+        this.userId = userId;
+        this.username = username;
+        this.email = email;
+        this.status = status;
+        this.registrationDate = registrationDate;
+    }
+
+    public Long getRegistrationId() { return registrationId; }
+    public Long getEventId() { return eventId; }
+    public String getEventTitle() { return eventTitle; }
+    public Long getUserId() { return userId; }
+    public String getUsername() { return username; }
+    public String getEmail() { return email; }
+    public String getStatus() { return status; }
+    public LocalDateTime getRegistrationDate() { return registrationDate; }
+}
@@ -0,0 +1,10 @@
+package com.example.sb.demo.dto;
+
+import java.time.LocalDate;
+
+/**
+ * Filters of the admin registration list; {@code null} (or empty) fields don't
+ * filter. {@code from} and {@code to} are inclusive registration days.
+ */
+public record RegistrationFilter(Long eventId, String status, String department, LocalDate from, LocalDate to) {
+}
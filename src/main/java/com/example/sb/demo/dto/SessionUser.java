@@ -0,0 +1,26 @@
+package com.example.sb.demo.dto;
+
+import java.io.Serial;
+import java.io.Serializable;
+
+import com.example.sb.demo.entity.User;
+
+/**
+ * What the HTTP session keeps about the logged-in user: enough to identify them
+ * and render the navigation, nothing that goes stale or is sensitive. The
+ * session is stored in the database (Spring Session JDBC), so this is also what
+ * every node deserializes on each request.
+ */
+public record SessionUser(Long id, String username, String role, String displayName) implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    public static SessionUser of(User user) {
+        return new SessionUser(user.getId(), user.getUsername(), user.getRole(), user.getFullName());
+    }
+
+    public boolean isAdmin() {
+        return "ADMIN".equalsIgnoreCase(role);
+    }
+}
@@ -0,0 +1,10 @@
+package com.example.sb.demo.dto;
+
+import java.time.LocalDate;
+
+/**
+ * Users who signed up in the week or month starting on {@code start}, by
+ * department and year of study.
+ */
+public record SignupCohort(LocalDate start, String department, Integer year, long total) {
+}
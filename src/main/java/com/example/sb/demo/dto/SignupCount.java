@@ -0,0 +1,11 @@
+package com.example.sb.demo.dto;
+
+import java.time.LocalDate;
+
+/** Row of the signups-per-day "group by" query behind the user cohort report. */
+public interface SignupCount {
+    LocalDate getDate();
+    String getDepartment();
+    Integer getYear();
+    long getTotal();
+}
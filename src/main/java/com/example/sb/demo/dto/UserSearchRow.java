@@ -0,0 +1,27 @@
+package com.example.sb.demo.dto;
+
+/**
+ * The user fields covered by the admin search index.
+ */
+public class UserSearchRow {
+
+    private final Long id;
+    private final String username;
+    private final String fullName;
+    private final String email;
+    private final String role;
+
+    public UserSearchRow(Long id, String username, String fullName, String email, String role) {
+        this.id = id;
+        this.username = username;
+        this.fullName = fullName;
+        this.email = email;
+        this.role = role;
+    }
+
+    public Long getId() { return id; }
+    public String getUsername() { return username; }
+    public String getFullName() { return fullName; }
+    public String getEmail() { return email; }
+    public String getRole() { return role; }
+}
@@ -0,0 +1,57 @@
+package com.example.sb.demo.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDate;
+
+/**
+ * One day's count for one label of a report series, e.g. the registrations
+ * that were APPROVED on 2024-03-01. Reports sum these rows instead of scanning
+ * the detail tables, so a year is at most 365 rows per label.
+ */
+@Entity
+@Table(name = "daily_rollups", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_daily_rollups_series_date_label", columnNames = {"series", "rollup_date", "label"})
+})
+public class DailyRollup {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 40)
+    private String series;
+
+    @Column(name = "rollup_date", nullable = false)
+    private LocalDate date;
+
+    @Column(nullable = false, length = 100)
+    private String label;
+
+    @Column(nullable = false)
+    private long total;
+
+    public DailyRollup() {
+    }
+
+    public DailyRollup(String series, LocalDate date, String label, long total) {
+        this.series = series;
+        this.date = date;
+        this.label = label;
+        this.total = total;
+    }
+
+    // Getters & Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public String getSeries() { return series; }
+    public void setSeries(String series) { this.series = series; }
+
+    public LocalDate getDate() { return date; }
+    public void setDate(LocalDate date) { this.date = date; }
+
+    public String getLabel() { return label; }
+    public void setLabel(String label) { this.label = label; }
+
+    public long getTotal() { return total; }
+    public void setTotal(long total) { this.total = total; }
+}
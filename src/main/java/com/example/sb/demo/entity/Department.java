@@ -0,0 +1,42 @@
+package com.example.sb.demo.entity;
+
+import jakarta.persistence.*;
+
+/**
+ * Department dictionary entry; users point at it by department_id.
+ * {@code nameKey} is the name trimmed and lower-cased, so "CSE" and " cse"
+ * are the same department; {@code name} keeps the first spelling seen.
+ */
+@Entity
+@Table(name = "departments", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_departments_name_key", columnNames = "name_key")
+})
+public class Department {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 100)
+    private String name;
+
+    @Column(name = "name_key", nullable = false, length = 100)
+    private String nameKey;
+
+    public Department() {
+    }
+
+    public Department(String name, String nameKey) {
+        this.name = name;
+        this.nameKey = nameKey;
+    }
+
+    // Getters & Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+
+    public String getNameKey() { return nameKey; }
+    public void setNameKey(String nameKey) { this.nameKey = nameKey; }
+}
@@ -4,8 +4,13 @@ import jakarta.persistence.*;
 
 import java.time.LocalDateTime;
 
+import org.hibernate.annotations.ColumnDefault;
+
 @Entity
-@Table(name = "events")
+@NamedEntityGraph(name = "Event.withCreator", attributeNodes = @NamedAttributeNode("createdBy"))
+@Table(name = "events", indexes = {
+        @Index(name = "idx_events_event_date_id", columnList = "event_date, id")
+})
 
 public class Event {
     public Long getId() {
@@ -56,6 +61,14 @@ public class Event {
 		this.imageUrl = imageUrl;
 	}
 
+	public String getThumbnailUrl() {
+		return thumbnailUrl;
+	}
+
+	public void setThumbnailUrl(String thumbnailUrl) {
+		this.thumbnailUrl = thumbnailUrl;
+	}
+
 	public Integer getMaxParticipants() {
 		return maxParticipants;
 	}
@@ -64,6 +77,19 @@ public class Event {
 		this.maxParticipants = maxParticipants;
 	}
 
+	public int getRegisteredCount() {
+		return registeredCount;
+	}
+
+	/** Free seats according to the counter, or null when the event has no limit. */
+	public Integer getSeatsLeft() {
+		return maxParticipants == null ? null : Math.max(0, maxParticipants - registeredCount);
+	}
+
+	public long getSeatsVersion() {
+		return seatsVersion;
+	}
+
 	public User getCreatedBy() {
 		return createdBy;
 	}
@@ -113,10 +139,23 @@ public class Event {
     private String venue;
 
     private String imageUrl;
+
+    // Card-sized variant produced by EventImageService; null until processing finishes
+    private String thumbnailUrl;
     
     private Integer maxParticipants;
+
+    // Seats taken; only changed by the conditional updates in EventRepository
+    @ColumnDefault("0")
+    @Column(nullable = false, insertable = false, updatable = false)
+    private int registeredCount;
+
+    // Bumped by each of those updates, so page validators notice seats being taken or freed
+    @ColumnDefault("0")
+    @Column(nullable = false, insertable = false, updatable = false)
+    private long seatsVersion;
     
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "created_by", nullable = false)
     private User createdBy;
 
@@ -2,9 +2,15 @@ package com.example.sb.demo.entity;
 
 import jakarta.persistence.*;
 
+import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "users")
+// Signup cohorts read (created_at, department, year) straight from the index
+// Department filters and breakdowns join on department_id
+@Table(name = "users", indexes = {
+        @Index(name = "idx_users_created_at", columnList = "created_at, department, year"),
+        @Index(name = "idx_users_department_id", columnList = "department_id")
+})
 
 public class User {
     public Long getId() {
@@ -55,12 +61,24 @@ public class User {
 	public void setDepartment(String department) {
 		this.department = department;
 	}
+	public Department getDepartmentRef() {
+		return departmentRef;
+	}
+	public void setDepartmentRef(Department departmentRef) {
+		this.departmentRef = departmentRef;
+	}
 	public Integer getYear() {
 		return year;
 	}
 	public void setYear(Integer year) {
 		this.year = year;
 	}
+	public LocalDateTime getCreatedAt() {
+		return createdAt;
+	}
+	public void setCreatedAt(LocalDateTime createdAt) {
+		this.createdAt = createdAt;
+	}
 	@Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -82,6 +100,20 @@ public class User {
 
     // Additional fields for students
     private String studentId;
-    private String department;
+    private String department; // the name, kept for display, search and cohorts
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "department_id", foreignKey = @ForeignKey(name = "fk_users_department"))
+    private Department departmentRef;
+
     private Integer year;
+
+    // Signup time; null for accounts created before it was recorded
+    @Column(name = "created_at", updatable = false)
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        if (createdAt == null) createdAt = LocalDateTime.now();
+    }
 }
\ No newline at end of file
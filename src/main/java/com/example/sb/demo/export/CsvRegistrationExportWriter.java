@@ -0,0 +1,53 @@
+package com.example.sb.demo.export;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+
+import com.example.sb.demo.dto.RegistrationExportRow;
+
+public class CsvRegistrationExportWriter implements RegistrationExportWriter {
+
+    @Override
+    public String getContentType() {
+        return "text/csv";
+    }
+
+    @Override
+    public String getFileExtension() {
+        return "csv";
+    }
+
+    @Override
+    public void write(Iterator<RegistrationExportRow> rows, OutputStream out) throws IOException {
+        Writer w = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        w.write(String.join(",", HEADERS));
+        w.write('\n');
+        w.flush(); // let the client see the download start right away
+
+        while (rows.hasNext()) {
+            RegistrationExportRow r = rows.next();
+            w.append(String.valueOf(r.getRegistrationId())).append(',')
+             .append(String.valueOf(r.getEventId())).append(',')
+             .append(escapeCsv(r.getEventTitle())).append(',')
+             .append(String.valueOf(r.getUserId())).append(',')
+             .append(escapeCsv(r.getUsername())).append(',')
+             .append(escapeCsv(r.getEmail())).append(',')
+             .append(r.getStatus() == null ? "" : r.getStatus()).append(',')
+             .append(r.getRegistrationDate() == null ? "" : r.getRegistrationDate().toString()).append('\n');
+        }
+        w.flush();
+    }
+
+    private static String escapeCsv(String s) {
+        if (s == null) return "";
+        if (s.contains(",") || s.contains("\n") || s.contains("\"")) {
+            return '"' + s.replace("\"", "\"\"") + '"';
+        }
+        return s;
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.sb.demo.export;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+
+import com.example.sb.demo.dto.RegistrationExportRow;
+
+/**
+ * Writes registration rows to an output stream one at a time, so an export
+ * never holds more than the current row in memory.
+ */
+public interface RegistrationExportWriter {
+
+    String[] HEADERS = {
+            "Registration ID", "Event ID", "Event Title", "User ID", "Username", "Email", "Status", "Date"
+    };
+
+    String getContentType();
+
+    String getFileExtension();
+
+    /** Writes all rows; flushes but does not close {@code out}. */
+    void write(Iterator<RegistrationExportRow> rows, OutputStream out) throws IOException;
+
+    static RegistrationExportWriter forFormat(String format) {
+        return "xlsx".equalsIgnoreCase(format) ? new XlsxRegistrationExportWriter() : new CsvRegistrationExportWriter();
+    }
+}
@@ -0,0 +1,149 @@
+package com.example.sb.demo.export;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.format.DateTimeFormatter;
+import java.util.Iterator;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import com.example.sb.demo.dto.RegistrationExportRow;
+
+/**
+ * Minimal streaming XLSX (SpreadsheetML) writer.
+ *
+ * The workbook is a zip of a few fixed XML parts plus one worksheet whose rows
+ * are written as they arrive, using inline strings so no shared-string table
+ * has to be built in memory.
+ */
+public class XlsxRegistrationExportWriter implements RegistrationExportWriter {
+
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private static final String CONTENT_TYPES = """
+            <?xml version="1.0" encoding="UTF-8" standalone="yes"?>
+            <Types xmlns="http://schemas.openxmlformats.org/package/2006/content-types">
+            <Default Extension="rels" ContentType="application/vnd.openxmlformats-package.relationships+xml"/>
+            <Default Extension="xml" ContentType="application/xml"/>
+            <Override PartName="/xl/workbook.xml" ContentType="application/vnd.openxmlformats-officedocument.spreadsheetml.sheet.main+xml"/>
+            <Override PartName="/xl/worksheets/sheet1.xml" ContentType="application/vnd.openxmlformats-officedocument.spreadsheetml.worksheet+xml"/>
+            </Types>""";
+
+    private static final String ROOT_RELS = """
+            <?xml version="1.0" encoding="UTF-8" standalone="yes"?>
+            <Relationships xmlns="http://schemas.openxmlformats.org/package/2006/relationships">
+            <Relationship Id="rId1" Type="http://schemas.openxmlformats.org/officeDocument/2006/relationships/officeDocument" Target="xl/workbook.xml"/>
+            </Relationships>""";
+
+    private static final String WORKBOOK = """
+            <?xml version="1.0" encoding="UTF-8" standalone="yes"?>
+            <workbook xmlns="http://schemas.openxmlformats.org/spreadsheetml/2006/main" xmlns:r="http://schemas.openxmlformats.org/officeDocument/2006/relationships">
+            <sheets><sheet name="Registrations" sheetId="1" r:id="rId1"/></sheets>
+            </workbook>""";
+
+    private static final String WORKBOOK_RELS = """
+            <?xml version="1.0" encoding="UTF-8" standalone="yes"?>
+            <Relationships xmlns="http://schemas.openxmlformats.org/package/2006/relationships">
+            <Relationship Id="rId1" Type="http://schemas.openxmlformats.org/officeDocument/2006/relationships/worksheet" Target="worksheets/sheet1.xml"/>
+            </Relationships>""";
+
+    @Override
+    public String getContentType() {
+        return "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet";
+    }
+
+    @Override
+    public String getFileExtension() {
+        return "xlsx";
+    }
+
+    @Override
+    public void write(Iterator<RegistrationExportRow> rows, OutputStream out) throws IOException {
+        ZipOutputStream zip = new ZipOutputStream(out, StandardCharsets.UTF_8);
+        Writer w = new BufferedWriter(new OutputStreamWriter(zip, StandardCharsets.UTF_8));
+
+        writeEntry(zip, w, "[Content_Types].xml", CONTENT_TYPES);
+        writeEntry(zip, w, "_rels/.rels", ROOT_RELS);
+        writeEntry(zip, w, "xl/workbook.xml", WORKBOOK);
+        writeEntry(zip, w, "xl/_rels/workbook.xml.rels", WORKBOOK_RELS);
+
+        zip.putNextEntry(new ZipEntry("xl/worksheets/sheet1.xml"));
+        w.write("<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>"
+                + "<worksheet xmlns=\"http://schemas.openxmlformats.org/spreadsheetml/2006/main\"><sheetData>");
+
+        w.write("<row>");
+        for (String header : HEADERS) {
+            stringCell(w, header);
+        }
+        w.write("</row>");
+
+        while (rows.hasNext()) {
+            RegistrationExportRow r = rows.next();
+            w.write("<row>");
+            numberCell(w, r.getRegistrationId());
+            numberCell(w, r.getEventId());
+            stringCell(w, r.getEventTitle());
+            numberCell(w, r.getUserId());
+            stringCell(w, r.getUsername());
+            stringCell(w, r.getEmail());
+            stringCell(w, r.getStatus());
+            stringCell(w, r.getRegistrationDate() == null ? null : r.getRegistrationDate().format(DATE_FORMAT));
+            w.write("</row>");
+        }
+
+        w.write("</sheetData></worksheet>");
+        w.flush();
+        zip.closeEntry();
+        zip.finish();
+        out.flush();
+    }
+
+    private static void writeEntry(ZipOutputStream zip, Writer w, String name, String content) throws IOException {
+        zip.putNextEntry(new ZipEntry(name));
+        w.write(content);
+        w.flush();
+        zip.closeEntry();
+    }
+
+    private static void numberCell(Writer w, Long value) throws IOException {
+        if (value == null) {
+            w.write("<c/>");
+            return;
+        }
+        w.write("<c t=\"n\"><v>");
+        w.write(value.toString());
+        w.write("</v></c>");
+    }
+
+    private static void stringCell(Writer w, String value) throws IOException {
+        if (value == null) {
+            w.write("<c/>");
+            return;
+        }
+        w.write("<c t=\"inlineStr\"><is><t xml:space=\"preserve\">");
+        escapeXml(w, value);
+        w.write("</t></is></c>");
+    }
+
+    private static void escapeXml(Writer w, String s) throws IOException {
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            switch (c) {
+                case '&' -> w.write("&amp;");
+                case '<' -> w.write("&lt;");
+                case '>' -> w.write("&gt;");
+                case '"' -> w.write("&quot;");
+                default -> {
+                    // XML 1.0 forbids most control characters
+                    if (c >= 0x20 || c == '\t' || c == '\n' || c == '\r') {
+                        w.write(c);
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.sb.demo.monitoring;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Times every public method of EventService, RegistrationService and
+ * UserService ({@code app.service}) and every call on the Spring Data
+ * repositories ({@code app.repository}), tagged by class, method and the
+ * exception thrown (or "none").
+ *
+ * The service timers wrap the transaction, so they include the commit.
+ * Histograms and percentiles are switched on per meter name with
+ * management.metrics.distribution.* in application.properties.
+ */
+@Aspect
+@Component
+@Order(0)
+public class LayerTimingAspect {
+
+    private static final String REPOSITORY_PACKAGE = "com.example.sb.demo.repository";
+
+    private final MeterRegistry meterRegistry;
+    private final Map<Class<?>, String> repositoryNames = new ConcurrentHashMap<>();
+
+    public LayerTimingAspect(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Around("execution(public * com.example.sb.demo.service.EventService.*(..))"
+            + " || execution(public * com.example.sb.demo.service.RegistrationService.*(..))"
+            + " || execution(public * com.example.sb.demo.service.UserService.*(..))")
+    public Object timeService(ProceedingJoinPoint call) throws Throwable {
+        return time("app.service", call.getSignature().getDeclaringType().getSimpleName(), call);
+    }
+
+    @Around("execution(* org.springframework.data.repository.Repository+.*(..))")
+    public Object timeRepository(ProceedingJoinPoint call) throws Throwable {
+        // inherited methods (findById, save, ...) are declared on CrudRepository; name the application interface
+        String repository = repositoryNames.computeIfAbsent(call.getThis().getClass(), LayerTimingAspect::repositoryName);
+        return time("app.repository", repository, call);
+    }
+
+    private Object time(String name, String className, ProceedingJoinPoint call) throws Throwable {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String exception = "none";
+        try {
+            return call.proceed();
+        } catch (Throwable t) {
+            exception = t.getClass().getSimpleName();
+            throw t;
+        } finally {
+            sample.stop(Timer.builder(name)
+                    .tag("class", className)
+                    .tag("method", call.getSignature().getName())
+                    .tag("exception", exception)
+                    .register(meterRegistry));
+        }
+    }
+
+    private static String repositoryName(Class<?> proxyClass) {
+        for (Class<?> type : proxyClass.getInterfaces()) {
+            if (type.getPackageName().equals(REPOSITORY_PACKAGE)) {
+                return type.getSimpleName();
+            }
+        }
+        return proxyClass.getSimpleName();
+    }
+}
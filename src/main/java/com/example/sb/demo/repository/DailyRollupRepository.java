@@ -0,0 +1,31 @@
+package com.example.sb.demo.repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import com.example.sb.demo.dto.LabelCount;
+import com.example.sb.demo.entity.DailyRollup;
+
+public interface DailyRollupRepository extends JpaRepository<DailyRollup, Long> {
+
+    // One statement per (series, day, label), whether or not the row exists yet;
+    // served by uk_daily_rollups_series_date_label
+    @Modifying
+    @Query(value = "insert into daily_rollups (series, rollup_date, label, total) "
+            + "values (:series, :date, :label, :delta) "
+            + "on duplicate key update total = total + :delta", nativeQuery = true)
+    int add(String series, LocalDate date, String label, long delta);
+
+    @Query("select r.label as label, sum(r.total) as total from DailyRollup r "
+            + "where r.series = :series and r.date between :from and :to "
+            + "group by r.label order by r.label")
+    List<LabelCount> sumByLabel(String series, LocalDate from, LocalDate to);
+
+    @Modifying
+    @Query("delete from DailyRollup r where r.series = :series and r.date between :from and :to")
+    int deleteRange(String series, LocalDate from, LocalDate to);
+}
@@ -0,0 +1,38 @@
+package com.example.sb.demo.repository;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import com.example.sb.demo.entity.Department;
+
+public interface DepartmentRepository extends JpaRepository<Department, Long> {
+    Optional<Department> findByNameKey(String nameKey);
+    List<Department> findAllByOrderByNameAsc();
+
+    // Creates the entry unless uk_departments_name_key already has it; never fails on a
+    // concurrent signup with the same new name, so it can share the caller's transaction
+    @Modifying
+    @Query(value = "insert into departments (name, name_key) values (:name, :nameKey) "
+            + "on duplicate key update name_key = name_key", nativeQuery = true)
+    int insertIfMissing(String name, String nameKey);
+
+    // Backfill from the free-text users.department column, one entry per spelling-insensitive name
+    @Modifying
+    @Query("insert into Department (name, nameKey) select min(trim(u.department)), lower(trim(u.department)) "
+            + "from User u where u.department is not null and trim(u.department) <> '' "
+            + "and not exists (select d.id from Department d where d.nameKey = lower(trim(u.department))) "
+            + "group by lower(trim(u.department))")
+    int insertMissingFromUsers();
+
+    // ...and point users at it, with the dictionary's spelling
+    @Modifying
+    @Query("update User u set "
+            + "u.departmentRef = (select d from Department d where d.nameKey = lower(trim(u.department))), "
+            + "u.department = (select d.name from Department d where d.nameKey = lower(trim(u.department))) "
+            + "where u.departmentRef is null and u.department is not null and trim(u.department) <> ''")
+    int linkUsers();
+}
@@ -2,15 +2,103 @@ package com.example.sb.demo.repository;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.example.sb.demo.dto.DailyCount;
+import com.example.sb.demo.dto.EventOption;
+import com.example.sb.demo.dto.EventsVersion;
 import com.example.sb.demo.entity.Event;
 import com.example.sb.demo.entity.User;
 
+// Methods whose results are rendered with the creator's name load it in the same
+// query via the "Event.withCreator" graph; createdBy is LAZY everywhere else.
 public interface EventRepository extends JpaRepository<Event, Long> {
     List<Event> findByCreatedBy(User user);
+    @EntityGraph("Event.withCreator")
+    Optional<Event> findWithCreatorById(Long id);
     List<Event> findByEventDateAfterOrderByEventDateAsc(LocalDateTime date);
     List<Event> findByEventDateBeforeOrderByEventDateDesc(LocalDateTime date);
+    @EntityGraph("Event.withCreator")
     List<Event> findAllByOrderByEventDateDesc();
+    // Select boxes: id and title only
+    @Query("select e.id as id, e.title as title from Event e order by e.eventDate desc, e.id desc")
+    List<EventOption> findOptions();
+    @EntityGraph("Event.withCreator")
+    List<Event> findByEventDateBetweenOrderByEventDateAsc(LocalDateTime start, LocalDateTime end);
+    @EntityGraph("Event.withCreator")
+    Page<Event> findByEventDateBetween(LocalDateTime start, LocalDateTime end, Pageable pageable);
+
+    // Dashboard
+    long countByEventDateAfter(LocalDateTime date);
+    long countByEventDateBefore(LocalDateTime date);
+    @EntityGraph("Event.withCreator")
+    List<Event> findTop5ByOrderByCreatedAtDesc();
+
+    // Report rollups: events per day and creator's department, rebuilt nightly
+    @Query("select cast(e.eventDate as LocalDate) as date, u.department as label, count(e) as total "
+            + "from Event e join e.createdBy u where e.eventDate >= :start and e.eventDate < :end "
+            + "group by cast(e.eventDate as LocalDate), u.department")
+    List<DailyCount> countByDayAndDepartment(LocalDateTime start, LocalDateTime end);
+
+    // Keyset pagination on (eventDate, id): newest first
+    @EntityGraph("Event.withCreator")
+    @Query("select e from Event e order by e.eventDate desc, e.id desc")
+    List<Event> findLatestPage(Limit limit);
+
+    @EntityGraph("Event.withCreator")
+    @Query("select e from Event e where e.eventDate < :eventDate or (e.eventDate = :eventDate and e.id < :id) "
+            + "order by e.eventDate desc, e.id desc")
+    List<Event> findLatestPageAfter(LocalDateTime eventDate, Long id, Limit limit);
+
+    // Keyset pagination on (eventDate, id): soonest upcoming first
+    @Query("select e from Event e where e.eventDate > :now order by e.eventDate asc, e.id asc")
+    List<Event> findUpcomingPage(LocalDateTime now, Limit limit);
+
+    @Query("select e from Event e where e.eventDate > :now "
+            + "and (e.eventDate > :eventDate or (e.eventDate = :eventDate and e.id > :id)) "
+            + "order by e.eventDate asc, e.id asc")
+    List<Event> findUpcomingPageAfter(LocalDateTime now, LocalDateTime eventDate, Long id, Limit limit);
+
+    // Conditional GETs: one aggregate row that changes whenever an event is added, removed,
+    // edited or has a seat taken or freed, and as upcoming events start
+    @Query("select count(e) as count, sum(case when e.eventDate > :now then 1 else 0 end) as upcoming, "
+            + "max(coalesce(e.updatedAt, e.createdAt)) as lastChanged, sum(e.seatsVersion) as seatChanges "
+            + "from Event e")
+    EventsVersion findVersion(LocalDateTime now);
+
+    @Query("select coalesce(e.updatedAt, e.createdAt) from Event e where e.id = :id")
+    Optional<LocalDateTime> findLastChangedById(Long id);
+
+    // Seat counter: single conditional UPDATE, so concurrent registrations can never overbook
+    @Modifying
+    @Query("update Event e set e.registeredCount = e.registeredCount + 1, e.seatsVersion = e.seatsVersion + 1 "
+            + "where e.id = :id and (e.maxParticipants is null or e.registeredCount < e.maxParticipants)")
+    int reserveSeat(Long id);
+
+    @Modifying
+    @Query("update Event e set e.registeredCount = e.registeredCount - :seats, e.seatsVersion = e.seatsVersion + 1 "
+            + "where e.id = :id and e.registeredCount >= :seats")
+    int releaseSeats(Long id, long seats);
+
+    // Only PENDING and APPROVED registrations hold a seat
+    @Modifying
+    @Query("update Event e set e.seatsVersion = e.seatsVersion + 1, e.registeredCount = (select count(r) "
+            + "from Registration r where r.event = e and r.status in ('PENDING', 'APPROVED'))")
+    int resyncRegisteredCounts();
+
+    // Image pipeline: swap in processed variants without touching the rest of the row
+    @Transactional
+    @Modifying
+    @Query("update Event e set e.imageUrl = :imageUrl, e.thumbnailUrl = :thumbnailUrl, e.updatedAt = :updatedAt "
+            + "where e.id = :id")
+    int updateImages(Long id, String imageUrl, String thumbnailUrl, LocalDateTime updatedAt);
 }
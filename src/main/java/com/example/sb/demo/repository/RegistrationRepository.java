@@ -1,20 +1,127 @@
 package com.example.sb.demo.repository;
 
+import com.example.sb.demo.dto.DailyCount;
+import com.example.sb.demo.dto.EventRegistrationStatus;
+import com.example.sb.demo.dto.LabelCount;
+import com.example.sb.demo.dto.RegistrationExportRow;
 import com.example.sb.demo.entity.Event;
 import com.example.sb.demo.entity.Registration;
 import com.example.sb.demo.entity.User;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
+import org.hibernate.jpa.SpecHints;
+
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+
+// List views render each registration's event and user, so those queries load both
+// in one statement via the "Registration.withEventAndUser" graph.
 @Repository
-public interface RegistrationRepository extends JpaRepository<Registration, Long> {
+public interface RegistrationRepository extends JpaRepository<Registration, Long>, JpaSpecificationExecutor<Registration>,
+        RegistrationRepositoryCustom {
+    @Override
+    @EntityGraph("Registration.withEventAndUser")
+    List<Registration> findAll();
+
     Optional<Registration> findByEventAndUser(Event event, User user);
+    @Query("select r.status from Registration r where r.id = :id")
+    String findStatusById(Long id);
+    @EntityGraph("Registration.withEventAndUser")
     List<Registration> findByEvent(Event event);
+    @EntityGraph("Registration.withEventAndUser")
     List<Registration> findByUser(User user);
+    @EntityGraph("Registration.withEventAndUser")
     List<Registration> findByEventId(Long eventId);
     long countByEvent(Event event);
-    boolean existsByEventAndUser(Event event, User user);
+    // One lookup for a whole page of event cards (served by the unique (event_id, user_id) index)
+    @Query("select r.event.id as eventId, r.status as status from Registration r "
+            + "where r.user.id = :userId and r.event.id in :eventIds")
+    List<EventRegistrationStatus> findStatusesByUserIdAndEventIds(Long userId, Collection<Long> eventIds);
+    Optional<Registration> findByEventIdAndUserId(Long eventId, Long userId);
+    @EntityGraph("Registration.withEventAndUser")
+    List<Registration> findByStatusOrderByRegistrationDateAsc(String status);
+    @EntityGraph("Registration.withEventAndUser")
+    Page<Registration> findByRegistrationDateBetween(LocalDateTime start, LocalDateTime end, Pageable pageable);
+
+    // Admin list: RegistrationSpecifications filters, one page plus a count query
+    @Override
+    @EntityGraph("Registration.withEventAndUser")
+    Page<Registration> findAll(Specification<Registration> spec, Pageable pageable);
+
+    // Dashboard
+    @Query("select r.status as label, count(r) as total from Registration r group by r.status")
+    List<LabelCount> countGroupByStatus();
+    @EntityGraph("Registration.withEventAndUser")
+    List<Registration> findTop5ByOrderByRegistrationDateDesc();
+    @EntityGraph("Registration.withEventAndUser")
+    List<Registration> findTop10ByStatusOrderByRegistrationDateAsc(String status);
+
+    // Bulk status changes: one set-based UPDATE per chunk of locked ids, limited to rows in one of the given statuses
+    @Modifying
+    @Query("update Registration r set r.status = :status "
+            + "where r.id in :ids and r.status in :fromStatuses and r.status <> :status")
+    int updateStatusByIds(Collection<Long> ids, Collection<String> fromStatuses, String status);
+    // Status changes lock the rows they read, so a seat is released only once; bulk updates
+    // lock in id order, so two of them over the same rows can't deadlock
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select r from Registration r where r.id = :id")
+    Optional<Registration> lockById(Long id);
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select r from Registration r where r.id in :ids order by r.id")
+    List<Registration> lockByIds(Collection<Long> ids);
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select r from Registration r where r.event.id = :eventId and r.status = :status order by r.id")
+    List<Registration> lockByEventAndStatus(Long eventId, String status);
+
+    // Report rollups: registrations per day and status, rebuilt nightly (served by idx_registrations_registration_date)
+    @Query("select cast(r.registrationDate as LocalDate) as date, r.status as label, count(r) as total "
+            + "from Registration r where r.registrationDate >= :start and r.registrationDate < :end "
+            + "group by cast(r.registrationDate as LocalDate), r.status")
+    List<DailyCount> countByDayAndStatus(LocalDateTime start, LocalDateTime end);
+
+    // Waitlist: FIFO by (registrationDate, id), served by idx_registrations_event_status_date.
+    // The head is read with FOR UPDATE SKIP LOCKED, so concurrent promotions take different rows
+    // and always see the latest committed statuses.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = SpecHints.HINT_SPEC_LOCK_TIMEOUT, value = "-2"))
+    @Query("select r from Registration r where r.event.id = :eventId and r.status = 'WAITLISTED' "
+            + "order by r.registrationDate asc, r.id asc")
+    List<Registration> lockWaitlistHead(Long eventId, Limit limit);
+    @Modifying
+    @Query("update Registration r set r.status = 'PENDING' where r.id in :ids and r.status = 'WAITLISTED'")
+    int promoteWaitlisted(Collection<Long> ids);
+    // compares against the stored row: the column may hold a coarser timestamp than the entity in memory
+    @Query("select count(r) from Registration r, Registration me where me.id = :id and r.event = me.event "
+            + "and r.status = 'WAITLISTED' and (r.registrationDate < me.registrationDate "
+            + "or (r.registrationDate = me.registrationDate and r.id < me.id))")
+    long countWaitlistedAhead(Long id);
+
+    // Export: forward-only cursor over flat rows; must be consumed inside a transaction
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select new com.example.sb.demo.dto.RegistrationExportRow("
+            + "r.id, e.id, e.title, u.id, u.username, u.email, r.status, r.registrationDate) "
+            + "from Registration r join r.event e join r.user u "
+            + "where (:eventId is null or e.id = :eventId) order by r.id")
+    Stream<RegistrationExportRow> streamExportRows(Long eventId);
 }
@@ -0,0 +1,18 @@
+package com.example.sb.demo.repository;
+
+import java.util.Map;
+
+import org.springframework.data.jpa.domain.Specification;
+
+import com.example.sb.demo.entity.Registration;
+
+/** Aggregates over the admin list's {@link RegistrationSpecifications} filters. */
+public interface RegistrationRepositoryCustom {
+
+    /**
+     * Registrations matching {@code spec}, counted per registrant department
+     * name in name order; registrants without a department are under a
+     * {@code null} key.
+     */
+    Map<String, Long> countByDepartment(Specification<Registration> spec);
+}
@@ -0,0 +1,51 @@
+package com.example.sb.demo.repository;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.data.jpa.domain.Specification;
+
+import com.example.sb.demo.entity.Department;
+import com.example.sb.demo.entity.Registration;
+import com.example.sb.demo.entity.User;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+// JpaSpecificationExecutor can't group, so the breakdown applies the same
+// Specification to a Criteria group-by query of its own.
+class RegistrationRepositoryCustomImpl implements RegistrationRepositoryCustom {
+
+    private final EntityManager entityManager;
+
+    RegistrationRepositoryCustomImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public Map<String, Long> countByDepartment(Specification<Registration> spec) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Registration> root = query.from(Registration.class);
+        Join<Registration, User> user = root.join("user");
+        Join<User, Department> department = user.join("departmentRef", JoinType.LEFT);
+        Path<String> name = department.get("name");
+
+        query.multiselect(name, cb.count(root)).groupBy(name).orderBy(cb.asc(name));
+        Predicate where = spec == null ? null : spec.toPredicate(root, query, cb);
+        if (where != null) query.where(where);
+
+        Map<String, Long> counts = new LinkedHashMap<>();
+        for (Tuple row : entityManager.createQuery(query).getResultList()) {
+            counts.put(row.get(0, String.class), row.get(1, Long.class));
+        }
+        return counts;
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.sb.demo.repository;
+
+import java.time.LocalDateTime;
+
+import org.springframework.data.jpa.domain.Specification;
+
+import com.example.sb.demo.entity.Registration;
+
+/**
+ * Filters for the admin registration list. Each one is a single predicate on
+ * an indexed column, and a {@code null} argument means "no filter", so any
+ * combination composes into one WHERE clause with {@code Specification.allOf}.
+ */
+public final class RegistrationSpecifications {
+
+    private RegistrationSpecifications() {
+    }
+
+    public static Specification<Registration> forEvent(Long eventId) {
+        return (root, query, cb) -> eventId == null ? null : cb.equal(root.get("event").get("id"), eventId);
+    }
+
+    public static Specification<Registration> hasStatus(String status) {
+        return (root, query, cb) -> status == null ? null : cb.equal(root.get("status"), status);
+    }
+
+    /** Registrant's department; joins users and compares users.department_id. */
+    public static Specification<Registration> inDepartment(Long departmentId) {
+        return (root, query, cb) -> departmentId == null
+                ? null
+                : cb.equal(root.join("user").get("departmentRef").get("id"), departmentId);
+    }
+
+    /** Registered at or after {@code from} and before {@code to}. */
+    public static Specification<Registration> registeredBetween(LocalDateTime from, LocalDateTime to) {
+        return (root, query, cb) -> {
+            if (from == null && to == null) return null;
+            if (to == null) return cb.greaterThanOrEqualTo(root.get("registrationDate"), from);
+            if (from == null) return cb.lessThan(root.get("registrationDate"), to);
+            return cb.and(cb.greaterThanOrEqualTo(root.get("registrationDate"), from),
+                          cb.lessThan(root.get("registrationDate"), to));
+        };
+    }
+}
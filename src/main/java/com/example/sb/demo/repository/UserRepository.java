@@ -1,12 +1,55 @@
 package com.example.sb.demo.repository;
 
+import com.example.sb.demo.dto.DailyCount;
+import com.example.sb.demo.dto.LabelCount;
+import com.example.sb.demo.dto.SignupCount;
+import com.example.sb.demo.dto.UserSearchRow;
 import com.example.sb.demo.entity.User;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByUsername(String username);
     Optional<User> findByEmail(String email);
     boolean existsByUsername(String username);
     boolean existsByEmail(String email);
-}
\ No newline at end of file
+
+    // Login rehash of a legacy/weaker password hash
+    @Transactional
+    @Modifying
+    @Query("update User u set u.password = :password where u.id = :id")
+    int updatePassword(Long id, String password);
+
+    // Dashboard
+    @Query("select u.role as label, count(u) as total from User u group by u.role")
+    List<LabelCount> countGroupByRole();
+
+    // Signups: range scans on idx_users_created_at (created_at, department, year)
+    Page<User> findByCreatedAtBetween(LocalDateTime start, LocalDateTime end, Pageable pageable);
+
+    @Query("select cast(u.createdAt as LocalDate) as date, u.department as department, u.year as year, "
+            + "count(u) as total from User u where u.createdAt >= :start and u.createdAt < :end "
+            + "group by cast(u.createdAt as LocalDate), u.department, u.year")
+    List<SignupCount> countSignupsByDayDepartmentAndYear(LocalDateTime start, LocalDateTime end);
+
+    // Report rollups: signups per day and role, rebuilt nightly
+    @Query("select cast(u.createdAt as LocalDate) as date, u.role as label, count(u) as total from User u "
+            + "where u.createdAt >= :start and u.createdAt < :end group by cast(u.createdAt as LocalDate), u.role")
+    List<DailyCount> countSignupsByDayAndRole(LocalDateTime start, LocalDateTime end);
+
+    // Admin user search
+    Page<User> findByRole(String role, Pageable pageable);
+
+    @Query("select new com.example.sb.demo.dto.UserSearchRow(u.id, u.username, u.fullName, u.email, u.role) "
+            + "from User u where u.id > :afterId order by u.id")
+    Stream<UserSearchRow> streamSearchRowsAfter(Long afterId);
+}
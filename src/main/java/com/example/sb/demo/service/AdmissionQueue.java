@@ -0,0 +1,314 @@
+package com.example.sb.demo.service;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Service;
+
+import com.example.sb.demo.dto.QueueTicket;
+import com.example.sb.demo.entity.Registration;
+import com.example.sb.demo.repository.EventRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Admission queue in front of event registration, for the burst of requests
+ * that arrives when a popular event opens.
+ *
+ * A registration request only takes a ticket in the event's in-memory FIFO
+ * lane and returns. Every {@code tick-ms} the lanes with waiting tickets are
+ * handed to a small worker pool, one worker per lane at a time, and each
+ * worker turns at most {@code rate-per-second * tick-ms / 1000} tickets into
+ * registrations through {@link RegistrationService#registerForEvent}. Database
+ * writes are therefore bounded by the rate and the number of workers, and a
+ * single writer per event keeps registrations (and the waitlist) in ticket
+ * order.
+ *
+ * The queue is per node and not persisted: tickets still waiting when the node
+ * stops are lost, and their holders simply register again. Finished tickets
+ * are kept for {@code ticket-retention-seconds} so the page can show the
+ * outcome.
+ *
+ * Because tickets live in one node's memory, the queue is off by default. Turn
+ * it on only for a single node, or behind a load balancer that routes each
+ * session to the same node: with round-robin routing a ticket poll that lands on
+ * another node finds nothing, and ticket order only holds per node. While it is
+ * off, neither the worker pool nor the dispatch tick exists.
+ *
+ * Metrics: {@code registration.queue.waiting}, {@code registration.queue.wait}
+ * (ticket to registration) and {@code registration.queue.rejected}.
+ */
+@Service
+public class AdmissionQueue {
+
+    public static final String QUEUED = "QUEUED";
+    public static final String REGISTERED = "REGISTERED";
+    public static final String FAILED = "FAILED";
+
+    private final EventRepository eventRepository;
+    private final RegistrationService registrationService;
+    private final TaskScheduler taskScheduler;
+    private final boolean enabled;
+    private final int capacity;
+    private final int batchSize;
+    private final long retentionNanos;
+    private final Duration tick;
+    // both null while the queue is disabled
+    private final ThreadPoolExecutor workers;
+    private ScheduledFuture<?> dispatching;
+
+    private final Map<Long, Lane> lanes = new ConcurrentHashMap<>();
+
+    private final Timer waitTimer;
+    private final Counter rejected;
+
+    public AdmissionQueue(EventRepository eventRepository,
+                          RegistrationService registrationService,
+                          TaskScheduler taskScheduler,
+                          MeterRegistry meterRegistry,
+                          @Value("${app.registration.queue.enabled:false}") boolean enabled,
+                          @Value("${app.registration.queue.capacity:10000}") int capacity,
+                          @Value("${app.registration.queue.rate-per-second:50}") int ratePerSecond,
+                          @Value("${app.registration.queue.tick-ms:200}") long tickMillis,
+                          @Value("${app.registration.queue.workers:4}") int workerCount,
+                          @Value("${app.registration.queue.ticket-retention-seconds:600}") long retentionSeconds) {
+        this.eventRepository = eventRepository;
+        this.registrationService = registrationService;
+        this.taskScheduler = taskScheduler;
+        this.enabled = enabled;
+        this.capacity = capacity;
+        this.batchSize = (int) Math.max(1, ratePerSecond * tickMillis / 1000);
+        this.retentionNanos = TimeUnit.SECONDS.toNanos(retentionSeconds);
+        this.tick = Duration.ofMillis(tickMillis);
+        this.workers = enabled ? newWorkerPool(workerCount) : null;
+
+        Gauge.builder("registration.queue.waiting", lanes, l -> l.values().stream().mapToInt(Lane::waiting).sum())
+                .description("Registration tickets waiting to be processed")
+                .register(meterRegistry);
+        this.waitTimer = Timer.builder("registration.queue.wait")
+                .description("Time from taking a ticket to its registration being written")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("registration.queue.rejected")
+                .description("Registration requests turned away because the event's queue was full")
+                .register(meterRegistry);
+    }
+
+    /** Whether registration requests go through the queue rather than straight to the database. */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Puts the user in line for the event and returns their ticket. A user who
+     * already holds a ticket gets it back; only a failed one is replaced.
+     */
+    public QueueTicket enqueue(Long eventId, Long userId) {
+        if (!enabled) {
+            throw new RuntimeException("The registration queue is not enabled");
+        }
+        if (eventId == null || userId == null) {
+            throw new RuntimeException("Invalid event or user information");
+        }
+        while (true) {
+            Lane lane = lanes.get(eventId);
+            if (lane == null) {
+                // only the first request for an event touches the database
+                if (!eventRepository.existsById(eventId)) {
+                    throw new RuntimeException("Event not found with ID: " + eventId);
+                }
+                lane = lanes.computeIfAbsent(eventId, Lane::new);
+            }
+            QueueTicket ticket = lane.offer(userId, capacity);
+            if (ticket == Lane.RETIRED) continue;
+            if (ticket == null) {
+                rejected.increment();
+                throw new RuntimeException("Too many registrations for this event right now. Please try again in a moment.");
+            }
+            return ticket;
+        }
+    }
+
+    /** The user's current or recently finished ticket for the event. */
+    public Optional<QueueTicket> findTicket(Long eventId, Long userId) {
+        Lane lane = lanes.get(eventId);
+        return lane == null ? Optional.empty() : Optional.ofNullable(lane.find(userId));
+    }
+
+    /** Forgets a processed ticket, e.g. after the registration was cancelled, so the user can queue again. */
+    public void discard(Long eventId, Long userId) {
+        Lane lane = lanes.get(eventId);
+        if (lane != null) lane.discard(userId);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (enabled) {
+            dispatching = taskScheduler.scheduleWithFixedDelay(this::dispatch, tick);
+        }
+    }
+
+    /** Runs every {@code tick-ms} while the queue is enabled. */
+    private void dispatch() {
+        long expiredBefore = System.nanoTime() - retentionNanos;
+        for (Lane lane : lanes.values()) {
+            lane.expire(expiredBefore);
+            if (lane.waiting() > 0 && lane.draining.compareAndSet(false, true)) {
+                try {
+                    workers.execute(() -> drain(lane));
+                } catch (RejectedExecutionException e) {
+                    lane.draining.set(false);
+                }
+            }
+            lanes.computeIfPresent(lane.eventId, (id, l) -> l.retireIfIdle() ? null : l);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (dispatching != null) dispatching.cancel(false);
+        if (workers != null) workers.shutdown();
+    }
+
+    private static ThreadPoolExecutor newWorkerPool(int workerCount) {
+        AtomicInteger threadNumber = new AtomicInteger();
+        return new ThreadPoolExecutor(workerCount, workerCount, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(),
+                r -> {
+                    Thread t = new Thread(r, "admission-" + threadNumber.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                });
+    }
+
+    /** Runs on a worker; {@code draining} guarantees it is the lane's only writer. */
+    private void drain(Lane lane) {
+        try {
+            for (int i = 0; i < batchSize; i++) {
+                Ticket ticket = lane.poll();
+                if (ticket == null) break;
+
+                String state;
+                String message = null;
+                try {
+                    Registration registration = registrationService.registerForEvent(lane.eventId, ticket.userId);
+                    state = RegistrationService.WAITLISTED.equals(registration.getStatus())
+                            ? RegistrationService.WAITLISTED : REGISTERED;
+                } catch (RuntimeException e) {
+                    state = FAILED;
+                    message = e.getMessage();
+                }
+                lane.finish(ticket, state, message);
+                waitTimer.record(System.nanoTime() - ticket.issuedAt, TimeUnit.NANOSECONDS);
+            }
+        } finally {
+            lane.draining.set(false);
+        }
+    }
+
+    private static final class Ticket {
+        private final String id = UUID.randomUUID().toString();
+        private final Long userId;
+        private final long sequence;
+        private final long issuedAt = System.nanoTime();
+        private String state = QUEUED;
+        private String message;
+        private long finishedAt;
+
+        private Ticket(Long userId, long sequence) {
+            this.userId = userId;
+            this.sequence = sequence;
+        }
+    }
+
+    /**
+     * One event's line. Tickets are numbered as they are issued, so a waiting
+     * ticket's position is its number minus the number already processed.
+     */
+    private static final class Lane {
+        private static final QueueTicket RETIRED = new QueueTicket(null, null, null, 0, null);
+
+        private final Long eventId;
+        private final ArrayDeque<Ticket> waiting = new ArrayDeque<>();
+        private final Map<Long, Ticket> byUser = new HashMap<>();
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private long issued;
+        private long processed;
+        private boolean retired;
+
+        private Lane(Long eventId) {
+            this.eventId = eventId;
+        }
+
+        private synchronized QueueTicket offer(Long userId, int capacity) {
+            if (retired) return RETIRED;
+            Ticket existing = byUser.get(userId);
+            // a second click keeps the user's place, or the outcome if already processed
+            if (existing != null && !FAILED.equals(existing.state)) return view(existing);
+            if (waiting.size() >= capacity) return null;
+
+            Ticket ticket = new Ticket(userId, ++issued);
+            waiting.add(ticket);
+            byUser.put(userId, ticket);
+            return view(ticket);
+        }
+
+        private synchronized Ticket poll() {
+            return waiting.poll();
+        }
+
+        private synchronized void finish(Ticket ticket, String state, String message) {
+            ticket.state = state;
+            ticket.message = message;
+            ticket.finishedAt = System.nanoTime();
+            processed = ticket.sequence;
+        }
+
+        private synchronized QueueTicket find(Long userId) {
+            Ticket ticket = byUser.get(userId);
+            return ticket == null ? null : view(ticket);
+        }
+
+        private synchronized void discard(Long userId) {
+            Ticket ticket = byUser.get(userId);
+            if (ticket != null && !QUEUED.equals(ticket.state)) byUser.remove(userId);
+        }
+
+        private synchronized int waiting() {
+            return waiting.size();
+        }
+
+        private synchronized void expire(long finishedBefore) {
+            byUser.values().removeIf(t -> !QUEUED.equals(t.state) && t.finishedAt - finishedBefore < 0);
+        }
+
+        /** Marks an empty lane as dropped, so a racing offer() retries on a fresh one. */
+        private synchronized boolean retireIfIdle() {
+            retired = waiting.isEmpty() && byUser.isEmpty() && !draining.get();
+            return retired;
+        }
+
+        private QueueTicket view(Ticket ticket) {
+            long position = QUEUED.equals(ticket.state) ? ticket.sequence - processed : 0;
+            return new QueueTicket(ticket.id, eventId, ticket.state, position, ticket.message);
+        }
+    }
+}
@@ -0,0 +1,236 @@
+package com.example.sb.demo.service;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.example.sb.demo.dto.LabelCount;
+import com.example.sb.demo.entity.Event;
+import com.example.sb.demo.entity.Registration;
+import com.example.sb.demo.repository.EventRepository;
+import com.example.sb.demo.repository.RegistrationRepository;
+import com.example.sb.demo.repository.UserRepository;
+
+/**
+ * Admin dashboard numbers, computed with COUNT / GROUP BY queries instead of
+ * loading whole tables.
+ *
+ * When {@code app.dashboard.live-counters=true} the counters are seeded once
+ * from the database and then kept up to date by the write paths in
+ * EventService, RegistrationService and UserService (applied after commit),
+ * so a dashboard load only runs the time-dependent upcoming/past counts.
+ * A seed that overlaps a commit can't tell whether its counts include that
+ * commit, so it is used for that one read but not kept.
+ */
+@Service
+public class DashboardStatsService {
+
+    private static final String TOTAL_EVENTS = "totalEvents";
+    private static final String TOTAL_REGISTRATIONS = "totalRegistrations";
+    private static final String TOTAL_USERS = "totalUsers";
+    private static final String REGISTRATION_PREFIX = "registrations:";
+    private static final String USER_PREFIX = "users:";
+
+    private final EventRepository eventRepository;
+    private final RegistrationRepository registrationRepository;
+    private final UserRepository userRepository;
+    private final boolean liveCounters;
+
+    private volatile Map<String, AtomicLong> counters;
+    // seeding queries the database; a lock (not synchronized) keeps virtual threads unpinned
+    private final ReentrantLock seedLock = new ReentrantLock();
+    // commits between their beforeCommit and the counter update that follows them,
+    // and how many have started in total; together they tell a seed it overlapped one
+    private final AtomicInteger commitsInFlight = new AtomicInteger();
+    private final AtomicLong commitsStarted = new AtomicLong();
+
+    public DashboardStatsService(EventRepository eventRepository,
+                                 RegistrationRepository registrationRepository,
+                                 UserRepository userRepository,
+                                 @Value("${app.dashboard.live-counters:false}") boolean liveCounters) {
+        this.eventRepository = eventRepository;
+        this.registrationRepository = registrationRepository;
+        this.userRepository = userRepository;
+        this.liveCounters = liveCounters;
+    }
+
+    @Transactional(readOnly = true)
+    public Map<String, Object> getSummaryStats() {
+        Map<String, AtomicLong> c = liveCounters ? liveCounters() : loadCounters();
+        LocalDateTime now = LocalDateTime.now();
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("totalEvents", get(c, TOTAL_EVENTS));
+        stats.put("upcomingEvents", eventRepository.countByEventDateAfter(now));
+        stats.put("pastEvents", eventRepository.countByEventDateBefore(now));
+        stats.put("totalRegistrations", get(c, TOTAL_REGISTRATIONS));
+        stats.put("pendingRegistrations", get(c, REGISTRATION_PREFIX + "PENDING"));
+        stats.put("approvedRegistrations", get(c, REGISTRATION_PREFIX + "APPROVED"));
+        stats.put("rejectedRegistrations", get(c, REGISTRATION_PREFIX + "REJECTED"));
+        stats.put("waitlistedRegistrations", get(c, REGISTRATION_PREFIX + "WAITLISTED"));
+        stats.put("totalUsers", get(c, TOTAL_USERS));
+        stats.put("totalStudents", get(c, USER_PREFIX + "STUDENT"));
+        stats.put("totalAdmins", get(c, USER_PREFIX + "ADMIN"));
+        return stats;
+    }
+
+    public List<Event> getRecentEvents() {
+        return eventRepository.findTop5ByOrderByCreatedAtDesc();
+    }
+
+    public List<Registration> getRecentRegistrations() {
+        return registrationRepository.findTop5ByOrderByRegistrationDateDesc();
+    }
+
+    /** Oldest pending registrations first; the full count is in the summary stats. */
+    public List<Registration> getPendingApprovals() {
+        return registrationRepository.findTop10ByStatusOrderByRegistrationDateAsc("PENDING");
+    }
+
+    // ==============================
+    // WRITE-PATH HOOKS
+    // ==============================
+    public void eventCreated() {
+        adjust(TOTAL_EVENTS, 1);
+    }
+
+    public void eventDeleted() {
+        adjust(TOTAL_EVENTS, -1);
+    }
+
+    public void registrationCreated(String status) {
+        adjust(TOTAL_REGISTRATIONS, 1);
+        adjust(REGISTRATION_PREFIX + status, 1);
+    }
+
+    public void registrationDeleted(String status) {
+        adjust(TOTAL_REGISTRATIONS, -1);
+        adjust(REGISTRATION_PREFIX + status, -1);
+    }
+
+    public void registrationStatusChanged(String oldStatus, String newStatus) {
+        registrationStatusChanged(oldStatus, newStatus, 1);
+    }
+
+    public void registrationStatusChanged(String oldStatus, String newStatus, long count) {
+        if (oldStatus != null && oldStatus.equals(newStatus)) return;
+        adjust(REGISTRATION_PREFIX + oldStatus, -count);
+        adjust(REGISTRATION_PREFIX + newStatus, count);
+    }
+
+    public void userCreated(String role) {
+        adjust(TOTAL_USERS, 1);
+        adjust(USER_PREFIX + role, 1);
+    }
+
+    public void userRoleChanged(String oldRole, String newRole) {
+        if (oldRole != null && oldRole.equals(newRole)) return;
+        adjust(USER_PREFIX + oldRole, -1);
+        adjust(USER_PREFIX + newRole, 1);
+    }
+
+    /**
+     * Drops the live counters (after commit) so the next read re-seeds them from
+     * the database; used by bulk writes that don't track individual changes.
+     */
+    public void invalidate() {
+        if (!liveCounters) return;
+        onCommit(c -> counters = null);
+    }
+
+    private void adjust(String key, long delta) {
+        if (!liveCounters) return;
+        onCommit(c -> c.computeIfAbsent(key, k -> new AtomicLong()).addAndGet(delta));
+    }
+
+    /** Applies the update to the live counters (if seeded) once the current transaction commits. */
+    private void onCommit(Consumer<Map<String, AtomicLong>> update) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            // already committed, possibly before a seed that is running now: re-seed
+            commitsStarted.incrementAndGet();
+            counters = null;
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            private boolean committing;
+
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                committing = true;
+                commitsInFlight.incrementAndGet();
+                commitsStarted.incrementAndGet();
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (!committing) return;
+                try {
+                    Map<String, AtomicLong> c = counters;
+                    if (status == STATUS_COMMITTED && c != null) update.accept(c);
+                } finally {
+                    commitsInFlight.decrementAndGet();
+                }
+            }
+        });
+    }
+
+    private Map<String, AtomicLong> liveCounters() {
+        Map<String, AtomicLong> c = counters;
+        if (c != null) return c;
+        seedLock.lock();
+        try {
+            c = counters;
+            if (c != null) return c;
+
+            long started = commitsStarted.get();
+            boolean quiet = commitsInFlight.get() == 0;
+            c = new ConcurrentHashMap<>(loadCounters());
+            if (quiet) {
+                counters = c;
+                // a commit began during the load; its update may land on c or be in it already
+                if (commitsStarted.get() != started) counters = null;
+            }
+            return c;
+        } finally {
+            seedLock.unlock();
+        }
+    }
+
+    private Map<String, AtomicLong> loadCounters() {
+        Map<String, AtomicLong> c = new HashMap<>();
+        c.put(TOTAL_EVENTS, new AtomicLong(eventRepository.count()));
+
+        long registrations = 0;
+        for (LabelCount row : registrationRepository.countGroupByStatus()) {
+            c.put(REGISTRATION_PREFIX + row.getLabel(), new AtomicLong(row.getTotal()));
+            registrations += row.getTotal();
+        }
+        c.put(TOTAL_REGISTRATIONS, new AtomicLong(registrations));
+
+        long users = 0;
+        for (LabelCount row : userRepository.countGroupByRole()) {
+            c.put(USER_PREFIX + row.getLabel(), new AtomicLong(row.getTotal()));
+            users += row.getTotal();
+        }
+        c.put(TOTAL_USERS, new AtomicLong(users));
+        return c;
+    }
+
+    private static long get(Map<String, AtomicLong> c, String key) {
+        AtomicLong value = c.get(key);
+        return value == null ? 0L : value.get();
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.sb.demo.service;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.sb.demo.entity.Department;
+import com.example.sb.demo.repository.DepartmentRepository;
+
+/**
+ * Cached department dictionary (the departments table, by name key).
+ *
+ * Dropdowns and filters read the cache; it is loaded on first use and reloaded
+ * after {@code cache-ttl-seconds}, so departments added on other nodes show up
+ * too. Names are matched trimmed and case-insensitively. {@link #resolve}
+ * returns a department for a name typed at signup, creating it with an
+ * insert-if-missing, so a concurrent signup with the same new name simply finds
+ * the other one's row.
+ */
+@Component
+public class DepartmentDirectory {
+
+    private static final Logger log = LoggerFactory.getLogger(DepartmentDirectory.class);
+
+    private final DepartmentRepository departmentRepository;
+    private final TransactionTemplate transaction;
+    private final long ttlNanos;
+    private final boolean backfillOnStartup;
+
+    private final Map<String, Department> byKey = new ConcurrentHashMap<>();
+    private volatile long loadedAt;
+    private volatile boolean loaded;
+
+    public DepartmentDirectory(DepartmentRepository departmentRepository,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${app.departments.cache-ttl-seconds:300}") long ttlSeconds,
+                               @Value("${app.departments.backfill-on-startup:true}") boolean backfillOnStartup) {
+        this.departmentRepository = departmentRepository;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.ttlNanos = TimeUnit.SECONDS.toNanos(ttlSeconds);
+        this.backfillOnStartup = backfillOnStartup;
+    }
+
+    /** All department names, sorted. */
+    public List<String> getNames() {
+        return departments().values().stream()
+                .map(Department::getName)
+                .sorted(Comparator.naturalOrder())
+                .toList();
+    }
+
+    public Optional<Department> find(String name) {
+        String key = key(name);
+        return key == null ? Optional.empty() : Optional.ofNullable(departments().get(key));
+    }
+
+    /**
+     * The department with this name, created if it doesn't exist yet; {@code null}
+     * for a blank name. Call it before the caller's transaction starts: a new entry
+     * is cached as soon as it is written, so it must not be rolled back afterwards.
+     */
+    public Department resolve(String name) {
+        String key = key(name);
+        if (key == null) return null;
+
+        Department department = departments().get(key);
+        if (department == null) {
+            department = transaction.execute(status -> {
+                departmentRepository.insertIfMissing(name.trim(), key);
+                return departmentRepository.findByNameKey(key)
+                        .orElseThrow(() -> new RuntimeException("Could not save department " + name));
+            });
+            byKey.put(key, department);
+        }
+        return department;
+    }
+
+    /**
+     * Fills the dictionary from the free-text department of existing users and
+     * points them at it; users that are already linked are left alone.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillOnStartup() {
+        if (!backfillOnStartup) return;
+        int[] counts = transaction.execute(status -> new int[] {
+                departmentRepository.insertMissingFromUsers(),
+                departmentRepository.linkUsers()
+        });
+        if (counts[0] > 0 || counts[1] > 0) {
+            log.info("Department backfill: {} departments added, {} users linked", counts[0], counts[1]);
+            loaded = false;
+        }
+    }
+
+    private Map<String, Department> departments() {
+        if (!loaded || System.nanoTime() - loadedAt > ttlNanos) {
+            Map<String, Department> fresh = new ConcurrentHashMap<>();
+            for (Department department : departmentRepository.findAllByOrderByNameAsc()) {
+                fresh.put(department.getNameKey(), department);
+            }
+            byKey.keySet().retainAll(fresh.keySet());
+            byKey.putAll(fresh);
+            loadedAt = System.nanoTime();
+            loaded = true;
+        }
+        return byKey;
+    }
+
+    // Same as lower(trim(...)) in the backfill queries; null for a blank name
+    private static String key(String name) {
+        return name == null || name.isBlank() ? null : name.trim().toLowerCase(Locale.ROOT);
+    }
+}
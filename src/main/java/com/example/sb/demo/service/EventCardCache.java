@@ -0,0 +1,105 @@
+package com.example.sb.demo.service;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.thymeleaf.ITemplateEngine;
+import org.thymeleaf.context.Context;
+
+import com.example.sb.demo.entity.Event;
+
+/**
+ * Size-bounded LRU cache of the rendered, user-independent part of event cards
+ * (fragments/event-card.html).
+ *
+ * Entries are keyed by event id and stamped with the event's updatedAt (or
+ * createdAt), so a card is re-rendered as soon as the event changes even if
+ * another node made the change. EventService also evicts on every write.
+ * List cards also show the creator's name, which changes without touching the
+ * event, so that name is part of their key within the entry.
+ */
+@Component
+public class EventCardCache {
+
+    public static final String LIST_CARD = "list-card";
+    public static final String HOME_CARD = "home-card";
+
+    private static final String TEMPLATE = "fragments/event-card";
+
+    private final ITemplateEngine templateEngine;
+    private final Map<Long, CachedCard> cards;
+
+    public EventCardCache(ITemplateEngine templateEngine,
+                          @Value("${app.event.card-cache.max-entries:500}") int maxEntries) {
+        this.templateEngine = templateEngine;
+        this.cards = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, CachedCard> eldest) {
+                return size() > maxEntries;
+            }
+        });
+    }
+
+    /** Rendered card HTML for each event, keyed by event id. */
+    public Map<Long, String> render(List<Event> events, String variant) {
+        Map<Long, String> html = new HashMap<>();
+        for (Event event : events) {
+            html.put(event.getId(), render(event, variant));
+        }
+        return html;
+    }
+
+    public String render(Event event, String variant) {
+        LocalDateTime version = versionOf(event);
+        CachedCard card = cards.get(event.getId());
+        if (card == null || !card.version.equals(version)) {
+            card = new CachedCard(version);
+            cards.put(event.getId(), card);
+        }
+        return card.html.computeIfAbsent(htmlKey(event, variant), k -> renderFragment(event, variant));
+    }
+
+    public void evict(Long eventId) {
+        if (eventId != null) {
+            cards.remove(eventId);
+        }
+    }
+
+    public void clear() {
+        cards.clear();
+    }
+
+    private String renderFragment(Event event, String variant) {
+        Context context = new Context();
+        context.setVariable("event", event);
+        return templateEngine.process(TEMPLATE, Set.of(variant), context);
+    }
+
+    // Only list cards read the creator, and only the list page fetches it with the event
+    private static String htmlKey(Event event, String variant) {
+        return LIST_CARD.equals(variant) ? variant + ":" + event.getCreatedBy().getFullName() : variant;
+    }
+
+    private static LocalDateTime versionOf(Event event) {
+        if (event.getUpdatedAt() != null) return event.getUpdatedAt();
+        return event.getCreatedAt() != null ? event.getCreatedAt() : LocalDateTime.MIN;
+    }
+
+    private static final class CachedCard {
+        private final LocalDateTime version;
+        // by htmlKey: the variant, plus the creator's name for list cards
+        private final Map<String, String> html = new ConcurrentHashMap<>();
+
+        private CachedCard(LocalDateTime version) {
+            this.version = version;
+        }
+    }
+}
@@ -0,0 +1,218 @@
+package com.example.sb.demo.service;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.Locale;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import com.example.sb.demo.repository.EventRepository;
+
+/**
+ * Event poster storage and processing.
+ *
+ * Uploads are stored content-addressed by SHA-256 ({@code <hash>.<ext>}), so the
+ * same poster uploaded twice is kept once. After the event is saved,
+ * {@link #processAsync} produces a card-sized and a full-sized JPEG variant off
+ * the request thread and points the event at them.
+ */
+@Service
+public class EventImageService {
+
+    private static final Logger log = LoggerFactory.getLogger(EventImageService.class);
+
+    public static final String URL_PREFIX = "/uploads/events/";
+
+    private final EventRepository eventRepository;
+    private final EventCardCache eventCardCache;
+    private final Path uploadDir;
+    private final int cardWidth;
+    private final int fullWidth;
+    private final float jpegQuality;
+    private final long maxPixels;
+
+    public EventImageService(EventRepository eventRepository,
+                             EventCardCache eventCardCache,
+                             @Value("${app.event.image.upload.dir}") String uploadDir,
+                             @Value("${app.event.image.card-width:480}") int cardWidth,
+                             @Value("${app.event.image.full-width:1600}") int fullWidth,
+                             @Value("${app.event.image.jpeg-quality:0.8}") float jpegQuality,
+                             @Value("${app.event.image.max-pixels:25000000}") long maxPixels) {
+        this.eventRepository = eventRepository;
+        this.eventCardCache = eventCardCache;
+        this.uploadDir = Paths.get(uploadDir);
+        this.cardWidth = cardWidth;
+        this.fullWidth = fullWidth;
+        this.jpegQuality = jpegQuality;
+        this.maxPixels = maxPixels;
+    }
+
+    /**
+     * Stores the upload under its content hash and returns the hash. The
+     * original stays servable at {@link #originalUrl} until processing is done.
+     */
+    public String storeOriginal(MultipartFile file) throws IOException {
+        Files.createDirectories(uploadDir);
+        Path temp = Files.createTempFile(uploadDir, "upload-", ".tmp");
+        try {
+            MessageDigest digest = sha256();
+            try (InputStream in = new DigestInputStream(file.getInputStream(), digest)) {
+                Files.copy(in, temp, StandardCopyOption.REPLACE_EXISTING);
+            }
+            String hash = HexFormat.of().formatHex(digest.digest());
+            Path target = uploadDir.resolve(hash + "." + extensionOf(file.getOriginalFilename()));
+            try {
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+            } catch (FileAlreadyExistsException e) {
+                // same content, stored by an earlier or concurrent upload
+            }
+            return hash;
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    public String originalUrl(String hash, MultipartFile file) {
+        return URL_PREFIX + hash + "." + extensionOf(file.getOriginalFilename());
+    }
+
+    /**
+     * Builds the card and full-size variants for an uploaded image (skipped when a
+     * previous upload of the same file already produced them) and updates the event.
+     * Formats ImageIO cannot decode, such as WebP, and images above the pixel
+     * limit keep serving the original.
+     */
+    @Async
+    public void processAsync(Long eventId, String hash, String originalUrl) {
+        try {
+            Path card = uploadDir.resolve(hash + "_card.jpg");
+            Path full = uploadDir.resolve(hash + "_full.jpg");
+
+            if (!Files.exists(card) || !Files.exists(full)) {
+                Path original = findOriginal(originalUrl);
+                BufferedImage image = original == null ? null : decode(original, eventId);
+                if (image == null) return;
+                writeJpeg(resize(image, fullWidth), full);
+                writeJpeg(resize(image, cardWidth), card);
+            }
+
+            eventRepository.updateImages(eventId,
+                    URL_PREFIX + full.getFileName(), URL_PREFIX + card.getFileName(), LocalDateTime.now());
+            eventCardCache.evict(eventId);
+        } catch (Exception e) {
+            log.warn("Image processing failed for event {}: {}", eventId, e.getMessage());
+        }
+    }
+
+    private Path findOriginal(String originalUrl) {
+        Path original = uploadDir.resolve(originalUrl.substring(URL_PREFIX.length()));
+        return Files.exists(original) ? original : null;
+    }
+
+    /**
+     * Decodes the image, or returns null when it can't or shouldn't be: the size is
+     * read from the header first, so a small file declaring a huge canvas is never
+     * allocated.
+     */
+    private BufferedImage decode(Path original, Long eventId) throws IOException {
+        try (ImageInputStream in = ImageIO.createImageInputStream(original.toFile())) {
+            Iterator<ImageReader> readers = in == null ? null : ImageIO.getImageReaders(in);
+            if (readers == null || !readers.hasNext()) {
+                log.info("Keeping original image for event {}: format not decodable", eventId);
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(in, true, true);
+                long pixels = (long) reader.getWidth(0) * reader.getHeight(0);
+                if (pixels > maxPixels) {
+                    log.warn("Keeping original image for event {}: {}x{} is over the {} pixel limit",
+                            eventId, reader.getWidth(0), reader.getHeight(0), maxPixels);
+                    return null;
+                }
+                return reader.read(0);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private static BufferedImage resize(BufferedImage source, int maxWidth) {
+        int width = Math.min(maxWidth, source.getWidth());
+        int height = Math.max(1, (int) Math.round(source.getHeight() * (width / (double) source.getWidth())));
+
+        // JPEG has no alpha channel: flatten onto white
+        BufferedImage target = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = target.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g.setColor(Color.WHITE);
+            g.fillRect(0, 0, width, height);
+            g.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            g.dispose();
+        }
+        return target;
+    }
+
+    private void writeJpeg(BufferedImage image, Path target) throws IOException {
+        Iterator<ImageWriter> writers = ImageIO.getImageWritersByFormatName("jpeg");
+        ImageWriter writer = writers.next();
+        Path temp = Files.createTempFile(uploadDir, "variant-", ".tmp");
+        try (ImageOutputStream out = ImageIO.createImageOutputStream(temp.toFile())) {
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(jpegQuality);
+            param.setProgressiveMode(ImageWriteParam.MODE_DEFAULT);
+            writer.setOutput(out);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static String extensionOf(String filename) {
+        if (filename == null) return "bin";
+        int dot = filename.lastIndexOf('.');
+        String ext = dot < 0 ? "" : filename.substring(dot + 1).toLowerCase(Locale.ROOT);
+        return ext.matches("[a-z0-9]{1,5}") ? ext : "bin";
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
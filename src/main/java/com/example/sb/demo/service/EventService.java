@@ -1,35 +1,127 @@
 package com.example.sb.demo.service;
 
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Optional;
 
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.example.sb.demo.dto.EventOption;
+import com.example.sb.demo.dto.EventPage;
+import com.example.sb.demo.dto.EventsVersion;
 import com.example.sb.demo.entity.Event;
 import com.example.sb.demo.entity.User;
 import com.example.sb.demo.repository.EventRepository;
 
-import lombok.RequiredArgsConstructor;
-
 @Service
-@RequiredArgsConstructor
 public class EventService {
 	  private final EventRepository eventRepository;
+	  private final DashboardStatsService dashboardStatsService;
+	  private final EventCardCache eventCardCache;
+	  private final ReportRollupService reportRollupService;
+	  private final RegistrationService registrationService;
 
 	    // ✅ Constructor Injection (preferred)
 	   
-	    public EventService(EventRepository eventRepository) {
+	    public EventService(EventRepository eventRepository,
+	                        DashboardStatsService dashboardStatsService,
+	                        EventCardCache eventCardCache,
+	                        ReportRollupService reportRollupService,
+	                        RegistrationService registrationService) {
 	        this.eventRepository = eventRepository;
+	        this.dashboardStatsService = dashboardStatsService;
+	        this.eventCardCache = eventCardCache;
+	        this.reportRollupService = reportRollupService;
+	        this.registrationService = registrationService;
 	    }
 
     public List<Event> getAllEvents() {
         return eventRepository.findAllByOrderByEventDateDesc();
     }
 
+    /** Id and title of every event, newest first, for filter dropdowns. */
+    public List<EventOption> getEventOptions() {
+        return eventRepository.findOptions();
+    }
+
+    // ==============================
+    // KEYSET PAGINATION
+    // ==============================
+    private static final int MAX_PAGE_SIZE = 50;
+
+    /** All events, newest first, one page at a time. Pass {@code null} as cursor for the first page. */
+    public EventPage browseEvents(String cursor, int size) {
+        Limit limit = Limit.of(clampPageSize(size) + 1);
+        Object[] key = parseCursor(cursor);
+        List<Event> rows = (key == null)
+                ? eventRepository.findLatestPage(limit)
+                : eventRepository.findLatestPageAfter((LocalDateTime) key[0], (Long) key[1], limit);
+        return toPage(rows, clampPageSize(size));
+    }
+
+    /** Upcoming events, soonest first, one page at a time. Pass {@code null} as cursor for the first page. */
+    public EventPage browseUpcomingEvents(String cursor, int size) {
+        LocalDateTime now = LocalDateTime.now();
+        Limit limit = Limit.of(clampPageSize(size) + 1);
+        Object[] key = parseCursor(cursor);
+        List<Event> rows = (key == null)
+                ? eventRepository.findUpcomingPage(now, limit)
+                : eventRepository.findUpcomingPageAfter(now, (LocalDateTime) key[0], (Long) key[1], limit);
+        return toPage(rows, clampPageSize(size));
+    }
+
+    private static int clampPageSize(int size) {
+        return Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+    }
+
+    // One extra row is fetched to know whether another page exists
+    private static EventPage toPage(List<Event> rows, int size) {
+        if (rows.size() <= size) {
+            return new EventPage(rows, null);
+        }
+        List<Event> page = rows.subList(0, size);
+        Event last = page.get(size - 1);
+        return new EventPage(page, last.getEventDate() + "_" + last.getId());
+    }
+
+    // Cursor format: <eventDate ISO>_<id>; anything unparsable restarts from the first page
+    private static Object[] parseCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) return null;
+        int sep = cursor.lastIndexOf('_');
+        if (sep <= 0) return null;
+        try {
+            return new Object[] {
+                    LocalDateTime.parse(cursor.substring(0, sep)),
+                    Long.valueOf(cursor.substring(sep + 1))
+            };
+        } catch (DateTimeParseException | NumberFormatException e) {
+            return null;
+        }
+    }
+
+    // ==============================
+    // CONDITIONAL GET VALIDATORS
+    // ==============================
+
+    /** One aggregate over the events table; changes whenever the event lists could. */
+    public EventsVersion getEventsVersion() {
+        return eventRepository.findVersion(LocalDateTime.now());
+    }
+
+    /** When the event was last edited (or created), without loading it. */
+    public Optional<LocalDateTime> getLastChanged(Long id) {
+        return eventRepository.findLastChangedById(id);
+    }
+
+    // With the creator: the register page renders their name after the session has closed
     public Event getEventById(Long id) {
-        return eventRepository.findById(id)
+        return eventRepository.findWithCreatorById(id)
                 .orElseThrow(() -> new RuntimeException("Event not found with ID: " + id));
     }
 
@@ -46,11 +138,13 @@ public class EventService {
     }
 
     public List<Event> getEventsByDateRange(LocalDateTime start, LocalDateTime end) {
-        return eventRepository.findAll().stream()
-                .filter(e -> e.getEventDate() != null &&
-                        (e.getEventDate().isEqual(start) || e.getEventDate().isAfter(start)) &&
-                        (e.getEventDate().isEqual(end) || e.getEventDate().isBefore(end)))
-                .collect(Collectors.toList());
+        return eventRepository.findByEventDateBetweenOrderByEventDateAsc(start, end);
+    }
+
+    /** One page of the events held in the range, soonest first. */
+    public Page<Event> getEventsByDateRange(LocalDateTime start, LocalDateTime end, int page, int size) {
+        return eventRepository.findByEventDateBetween(start, end,
+                PageRequest.of(Math.max(page, 0), size, Sort.by("eventDate", "id")));
     }
 
     @Transactional
@@ -60,6 +154,7 @@ public class EventService {
         }
         Event event = getEventById(eventId);
         event.setStatus("APPROVED");
+        eventCardCache.evict(eventId);
         return eventRepository.save(event);
     }
 
@@ -71,6 +166,7 @@ public class EventService {
         Event event = getEventById(eventId);
         event.setStatus("REJECTED");
         // reason is currently not persisted (no field). Could be logged or stored in future.
+        eventCardCache.evict(eventId);
         return eventRepository.save(event);
     }
 
@@ -89,6 +185,8 @@ public class EventService {
             throw new RuntimeException("Not authorized to modify this event");
         }
 
+        LocalDateTime oldDate = event.getEventDate();
+        Integer oldCapacity = event.getMaxParticipants();
         event.setTitle(eventDetails.getTitle());
         event.setDescription(eventDetails.getDescription());
         event.setEventDate(eventDetails.getEventDate());
@@ -96,7 +194,16 @@ public class EventService {
         event.setImageUrl(eventDetails.getImageUrl());
         event.setMaxParticipants(eventDetails.getMaxParticipants());
 
-        return eventRepository.save(event);
+        eventCardCache.evict(id);
+        reportRollupService.eventRescheduled(event, oldDate);
+        Event saved = eventRepository.saveAndFlush(event);
+
+        // ✅ New seats go to the waitlist first, exactly like seats freed by a cancellation
+        Integer capacity = saved.getMaxParticipants();
+        if (oldCapacity != null && (capacity == null || capacity > oldCapacity)) {
+            registrationService.fillFreeSeats(id);
+        }
+        return saved;
     }
 
     @Transactional
@@ -109,6 +216,9 @@ public class EventService {
         }
 
         eventRepository.delete(event);
+        eventCardCache.evict(id);
+        dashboardStatsService.eventDeleted();
+        reportRollupService.eventDeleted(event);
     }
 
     private boolean isAuthorizedToModify(Event event, User user) {
@@ -119,7 +229,11 @@ public class EventService {
     public Event createEvent(Event event, User creator) {
         event.setCreatedBy(creator); // ✅ Important for ownership
         event.setCreatedAt(LocalDateTime.now());
-        return eventRepository.save(event);
+        Event saved = eventRepository.save(event);
+        eventCardCache.evict(saved.getId());
+        dashboardStatsService.eventCreated();
+        reportRollupService.eventCreated(saved);
+        return saved;
     }
 
 }
\ No newline at end of file
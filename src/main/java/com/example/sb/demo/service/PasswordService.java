@@ -0,0 +1,165 @@
+package com.example.sb.demo.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import com.example.sb.demo.entity.User;
+import com.example.sb.demo.repository.UserRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * BCrypt hashing and verification on a dedicated, bounded thread pool.
+ *
+ * Hashing is deliberately CPU-heavy, so a login storm must not run it on every
+ * Tomcat thread at once: at most {@code threads} hashes run in parallel, up to
+ * {@code queue-capacity} more wait, and anything beyond that is turned away
+ * immediately with a "try again" error while other pages keep being served.
+ *
+ * Rows still holding a legacy plaintext password (or a hash with a lower cost
+ * than configured) are rehashed on their first successful login.
+ *
+ * Metrics: {@code auth.password.verification} (timer including queue wait,
+ * tagged by outcome), {@code auth.password.queue.size},
+ * {@code auth.password.active} and {@code auth.password.rejected}.
+ */
+@Service
+public class PasswordService {
+
+    private static final Pattern BCRYPT = Pattern.compile("^\\$2[aby]?\\$\\d\\d\\$[./A-Za-z0-9]{53}$");
+
+    private final UserRepository userRepository;
+    private final BCryptPasswordEncoder encoder;
+    private final ThreadPoolExecutor executor;
+    private final long timeoutMillis;
+
+    private final Timer matched;
+    private final Timer mismatched;
+    private final Counter rejected;
+
+    public PasswordService(UserRepository userRepository,
+                           MeterRegistry meterRegistry,
+                           @Value("${app.security.password.bcrypt-strength:10}") int strength,
+                           @Value("${app.security.password.threads:0}") int threads,
+                           @Value("${app.security.password.queue-capacity:500}") int queueCapacity,
+                           @Value("${app.security.password.timeout-ms:10000}") long timeoutMillis) {
+        this.userRepository = userRepository;
+        this.encoder = new BCryptPasswordEncoder(strength);
+        this.timeoutMillis = timeoutMillis;
+
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                r -> {
+                    Thread t = new Thread(r, "password-" + threadNumber.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        Gauge.builder("auth.password.queue.size", executor, e -> e.getQueue().size())
+                .description("Password hashes waiting for a thread")
+                .register(meterRegistry);
+        Gauge.builder("auth.password.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Password hashes being computed")
+                .register(meterRegistry);
+        this.matched = verificationTimer(meterRegistry, "match");
+        this.mismatched = verificationTimer(meterRegistry, "mismatch");
+        this.rejected = Counter.builder("auth.password.rejected")
+                .description("Logins turned away because the password queue was full or timed out")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Checks {@code rawPassword} against the user's stored password, upgrading
+     * the stored value to a current BCrypt hash when it matches but is plaintext
+     * or weaker than configured.
+     */
+    public boolean matches(User user, String rawPassword) {
+        String stored = user.getPassword();
+        if (rawPassword == null || stored == null) return false;
+
+        long start = System.nanoTime();
+        Verification result = run(() -> verify(stored, rawPassword));
+        (result.matched() ? matched : mismatched).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+
+        // written from the calling thread: a pool thread waiting for a second
+        // connection while the caller holds one could exhaust the pool
+        if (result.upgradedHash() != null) {
+            userRepository.updatePassword(user.getId(), result.upgradedHash());
+        }
+        return result.matched();
+    }
+
+    private Verification verify(String stored, String rawPassword) {
+        boolean hashed = BCRYPT.matcher(stored).matches();
+        boolean match = hashed
+                ? encoder.matches(rawPassword, stored)
+                : MessageDigest.isEqual(stored.getBytes(StandardCharsets.UTF_8),
+                                        rawPassword.getBytes(StandardCharsets.UTF_8));
+        boolean upgrade = match && (!hashed || encoder.upgradeEncoding(stored));
+        return new Verification(match, upgrade ? encoder.encode(rawPassword) : null);
+    }
+
+    /** BCrypt hash of a new password, computed on the same bounded pool. */
+    public String hash(String rawPassword) {
+        return run(() -> encoder.encode(rawPassword));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private <T> T run(Callable<T> task) {
+        Future<T> future;
+        try {
+            future = executor.submit(task);
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new RuntimeException("Too many sign-ins right now. Please try again in a moment.");
+        }
+
+        try {
+            return future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            rejected.increment();
+            throw new RuntimeException("Too many sign-ins right now. Please try again in a moment.");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Password check interrupted");
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof RuntimeException re ? re : new RuntimeException(e.getCause());
+        }
+    }
+
+    private record Verification(boolean matched, String upgradedHash) {
+    }
+
+    private static Timer verificationTimer(MeterRegistry meterRegistry, String outcome) {
+        return Timer.builder("auth.password.verification")
+                .description("Password verification latency, including time spent queued")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
@@ -1,56 +1,200 @@
 package com.example.sb.demo.service;
 
-import java.nio.charset.StandardCharsets;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Stream;
 
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.example.sb.demo.dto.EventRegistrationStatus;
+import com.example.sb.demo.dto.RegistrationExportRow;
+import com.example.sb.demo.dto.RegistrationFilter;
+import com.example.sb.demo.entity.Department;
 import com.example.sb.demo.entity.Event;
 import com.example.sb.demo.entity.Registration;
 import com.example.sb.demo.entity.User;
+import com.example.sb.demo.export.RegistrationExportWriter;
+import com.example.sb.demo.repository.EventRepository;
 import com.example.sb.demo.repository.RegistrationRepository;
+import com.example.sb.demo.repository.RegistrationSpecifications;
+import com.example.sb.demo.repository.UserRepository;
 
 @Service
 public class RegistrationService {
 
+    public static final String WAITLISTED = "WAITLISTED";
+
+    // statuses an admin can set; WAITLISTED is only ever assigned at registration
+    private static final Set<String> STATUSES = Set.of("PENDING", "APPROVED", "REJECTED");
+    private static final Set<String> SEAT_HOLDING = Set.of("PENDING", "APPROVED");
+    private static final int BULK_CHUNK_SIZE = 1000;
+
     private final RegistrationRepository registrationRepository;
+    private final EventRepository eventRepository;
+    private final UserRepository userRepository;
+    private final DashboardStatsService dashboardStatsService;
+    private final ReportRollupService reportRollupService;
+    private final DepartmentDirectory departmentDirectory;
+    private final boolean resyncSeatCountersOnStartup;
 
-    public RegistrationService(RegistrationRepository registrationRepository) {
+    public RegistrationService(RegistrationRepository registrationRepository,
+                               EventRepository eventRepository,
+                               UserRepository userRepository,
+                               DashboardStatsService dashboardStatsService,
+                               ReportRollupService reportRollupService,
+                               DepartmentDirectory departmentDirectory,
+                               @Value("${app.registration.resync-seat-counters-on-startup:true}") boolean resyncSeatCountersOnStartup) {
         this.registrationRepository = registrationRepository;
+        this.eventRepository = eventRepository;
+        this.userRepository = userRepository;
+        this.dashboardStatsService = dashboardStatsService;
+        this.reportRollupService = reportRollupService;
+        this.departmentDirectory = departmentDirectory;
+        this.resyncSeatCountersOnStartup = resyncSeatCountersOnStartup;
     }
 
     /**
-     * Registers a user for a specific event.
+     * Registers a user for a specific event, or puts them on the event's
+     * waitlist when it is full.
+     *
+     * Nothing is read first: the seat is taken with a conditional UPDATE on the
+     * event's counter (the capacity predicate) and the row is written with one
+     * INSERT, guarded by the unique (event_id, user_id) constraint and the
+     * foreign keys. Violations are reported by constraint name, so concurrent
+     * attempts can neither overbook nor double-register, and any failure rolls
+     * the seat reservation back with the transaction. Waitlisted entries are
+     * promoted in order as seats are released, see {@link #handOverSeats}.
      */
     @Transactional
-    public Registration registerForEvent(Event event, User user) {
-        if (event == null || user == null) {
+    public Registration registerForEvent(Long eventId, Long userId) {
+        if (eventId == null || userId == null) {
             throw new RuntimeException("Invalid event or user information");
         }
+        return register(eventRepository.getReferenceById(eventId), userRepository.getReferenceById(userId));
+    }
 
-        // Check if the user is already registered
-        Optional<Registration> existing = registrationRepository.findByEventAndUser(event, user);
-        if (existing.isPresent()) {
-            throw new RuntimeException("You have already registered for this event");
+    /** {@link #registerForEvent(Long, Long)} for callers that already hold the entities. */
+    @Transactional
+    public Registration registerForEvent(Event event, User user) {
+        if (event == null || user == null) {
+            throw new RuntimeException("Invalid event or user information");
         }
+        return register(event, user);
+    }
 
-        // Check for event capacity
-        long count = registrationRepository.countByEvent(event);
-        if (event.getMaxParticipants() != null && count >= event.getMaxParticipants()) {
-            throw new RuntimeException("Registration limit reached for this event");
-        }
+    private Registration register(Event event, User user) {
+        boolean seated = eventRepository.reserveSeat(event.getId()) == 1;
 
         Registration registration = new Registration();
         registration.setEvent(event);
         registration.setUser(user);
-        registration.setStatus("PENDING");
+        registration.setStatus(seated ? "PENDING" : WAITLISTED);
         registration.setRegistrationDate(LocalDateTime.now());
 
-        return registrationRepository.save(registration);
+        Registration saved;
+        try {
+            saved = registrationRepository.saveAndFlush(registration);
+        } catch (DataIntegrityViolationException e) {
+            throw registrationConflict(e, event.getId());
+        }
+        dashboardStatsService.registrationCreated(saved.getStatus());
+        reportRollupService.registrationCreated(saved);
+
+        // a seat released between our failed reservation and this insert found no one to promote
+        if (!seated && fillFreeSeats(event.getId()) > 0) {
+            // the promotion is a bulk UPDATE that bypasses this entity, and may have been ours
+            saved.setStatus(registrationRepository.findStatusById(saved.getId()));
+        }
+        return saved;
+    }
+
+    /**
+     * Turns a failed registration INSERT into the message for the constraint it
+     * violated. A database whose foreign keys predate the fk_registrations_*
+     * names only gets the duplicate message translated.
+     */
+    private static RuntimeException registrationConflict(DataIntegrityViolationException e, Long eventId) {
+        // the driver message too: some dialects extract the name imperfectly (H2 drops its first letter)
+        String constraint = (e.getCause() instanceof ConstraintViolationException cve ? cve.getConstraintName() : "")
+                + " " + e.getMostSpecificCause().getMessage();
+        constraint = constraint.toLowerCase(Locale.ROOT);
+        if (constraint.contains("uk_registrations_event_user")) {
+            return new RuntimeException("You have already registered for this event");
+        }
+        if (constraint.contains("fk_registrations_event")) {
+            return new RuntimeException("Event not found with ID: " + eventId);
+        }
+        if (constraint.contains("fk_registrations_user")) {
+            return new RuntimeException("User not found");
+        }
+        return e;
+    }
+
+    /** 1-based place on the event's waitlist, or 0 when the registration isn't waitlisted. */
+    @Transactional(readOnly = true)
+    public long getWaitlistPosition(Registration registration) {
+        if (!WAITLISTED.equals(registration.getStatus())) return 0;
+        return registrationRepository.countWaitlistedAhead(registration.getId()) + 1;
+    }
+
+    public Optional<Registration> findRegistration(Event event, User user) {
+        return registrationRepository.findByEventAndUser(event, user);
+    }
+
+    public Optional<Registration> findRegistration(Long eventId, Long userId) {
+        return registrationRepository.findByEventIdAndUserId(eventId, userId);
+    }
+
+    /** The user's registration status per event id, for the events that have one. */
+    public Map<Long, String> getRegistrationStatuses(Long userId, List<Event> events) {
+        if (userId == null || events.isEmpty()) return Map.of();
+        List<Long> eventIds = events.stream().map(Event::getId).toList();
+        Map<Long, String> statuses = new HashMap<>();
+        for (EventRegistrationStatus row : registrationRepository.findStatusesByUserIdAndEventIds(userId, eventIds)) {
+            statuses.put(row.getEventId(), row.getStatus());
+        }
+        return statuses;
+    }
+
+    /**
+     * Recomputes every event's seat counter from the registrations table, e.g.
+     * after the column was first added or rows were changed by hand.
+     */
+    @Transactional
+    public void resyncSeatCounters() {
+        eventRepository.resyncRegisteredCounts();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void resyncSeatCountersOnStartup() {
+        if (resyncSeatCountersOnStartup) {
+            eventRepository.resyncRegisteredCounts();
+        }
     }
 
     public List<Registration> getEventRegistrations(Event event) {
@@ -65,65 +209,211 @@ public class RegistrationService {
         return registrationRepository.findAll();
     }
 
+    /**
+     * One page of the admin registration list. Every filter (event, status,
+     * registrant's department, registration days) goes into a single query,
+     * with a separate count query for the page total.
+     */
+    public Page<Registration> searchRegistrations(RegistrationFilter filter, Pageable pageable) {
+        return toSpecification(filter)
+                .map(spec -> registrationRepository.findAll(spec, pageable))
+                .orElseGet(() -> Page.empty(pageable));
+    }
+
+    /** Registration counts per registrant department, for the same filters as {@link #searchRegistrations}. */
+    public Map<String, Long> getRegistrationCountsByDepartment(RegistrationFilter filter) {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        toSpecification(filter).ifPresent(spec -> registrationRepository.countByDepartment(spec)
+                .forEach((name, total) -> counts.merge(name == null ? "Unknown" : name, total, Long::sum)));
+        return counts;
+    }
+
+    // Empty when the filter names a department that doesn't exist, so nothing can match
+    private Optional<Specification<Registration>> toSpecification(RegistrationFilter filter) {
+        Long departmentId = null;
+        if (filter.department() != null && !filter.department().isBlank()) {
+            Optional<Department> found = departmentDirectory.find(filter.department());
+            if (found.isEmpty()) return Optional.empty();
+            departmentId = found.get().getId();
+        }
+        return Optional.of(Specification.allOf(
+                RegistrationSpecifications.forEvent(filter.eventId()),
+                RegistrationSpecifications.hasStatus(emptyToNull(filter.status())),
+                RegistrationSpecifications.inDepartment(departmentId),
+                RegistrationSpecifications.registeredBetween(
+                        filter.from() == null ? null : filter.from().atStartOfDay(),
+                        filter.to() == null ? null : filter.to().plusDays(1).atStartOfDay())));
+    }
+
+    private static String emptyToNull(String value) {
+        return value == null || value.isEmpty() ? null : value;
+    }
+
+    /**
+     * Changes one registration's status. Rejecting a registration that holds a
+     * seat hands the seat to the head of the waitlist; giving a seat back to a
+     * rejected or waitlisted registration requires a free one.
+     */
     @Transactional
     public Registration updateRegistrationStatus(Long registrationId, String status, User admin) {
         if (!"ADMIN".equals(admin.getRole())) {
             throw new RuntimeException("Only admins can update registration status");
         }
+        if (!STATUSES.contains(status)) {
+            throw new RuntimeException("Invalid registration status: " + status);
+        }
 
-        Registration registration = registrationRepository.findById(registrationId)
+        Registration registration = registrationRepository.lockById(registrationId)
                 .orElseThrow(() -> new RuntimeException("Registration not found"));
 
+        String oldStatus = registration.getStatus();
+        Long eventId = registration.getEvent().getId();
+        boolean hadSeat = SEAT_HOLDING.contains(oldStatus);
+        boolean needsSeat = SEAT_HOLDING.contains(status);
+
+        if (needsSeat && !hadSeat && eventRepository.reserveSeat(eventId) == 0) {
+            throw new RuntimeException("No seats left for this event");
+        }
+
         registration.setStatus(status);
-        return registrationRepository.save(registration);
-    }
+        Registration saved = registrationRepository.saveAndFlush(registration);
+        dashboardStatsService.registrationStatusChanged(oldStatus, status);
+        reportRollupService.registrationStatusChanged(saved.getRegistrationDate(), oldStatus, status, 1);
 
-    public List<Registration> getPendingRegistrations() {
-        return registrationRepository.findAll().stream()
-                .filter(r -> "PENDING".equals(r.getStatus()))
-                .collect(Collectors.toList());
+        if (hadSeat && !needsSeat) {
+            handOverSeats(eventId, 1);
+        }
+        return saved;
     }
 
-    public List<Registration> getRegistrationsByDateRange(LocalDateTime start, LocalDateTime end) {
-        return registrationRepository.findAll().stream()
-                .filter(r -> r.getRegistrationDate() != null &&
-                        (r.getRegistrationDate().isAfter(start) || r.getRegistrationDate().isEqual(start)) &&
-                        (r.getRegistrationDate().isBefore(end) || r.getRegistrationDate().isEqual(end)))
-                .collect(Collectors.toList());
+    /**
+     * Sets the status of the given registrations with one UPDATE per
+     * {@value #BULK_CHUNK_SIZE} ids and returns how many rows changed.
+     *
+     * Approving (or resetting to PENDING) only touches registrations that
+     * already hold a seat; rejecting frees their seats for the waitlist. Each
+     * chunk is locked (in id order) before it is read, so a cancellation or
+     * single update of the same rows waits and then sees the new status instead
+     * of freeing the same seat a second time.
+     */
+    @Transactional
+    public int updateRegistrationStatuses(Collection<Long> registrationIds, String status, User admin) {
+        checkBulkUpdate(status, admin);
+        if (registrationIds == null || registrationIds.isEmpty()) {
+            throw new RuntimeException("No registrations selected");
+        }
+
+        boolean releasesSeats = !SEAT_HOLDING.contains(status);
+        Set<String> fromStatuses = releasesSeats ? Set.of("PENDING", "APPROVED", WAITLISTED) : SEAT_HOLDING;
+
+        List<Long> ids = new ArrayList<>(new TreeSet<>(registrationIds));
+        Map<Long, Long> freedSeats = new HashMap<>();
+        int updated = 0;
+        for (int from = 0; from < ids.size(); from += BULK_CHUNK_SIZE) {
+            List<Long> chunk = ids.subList(from, Math.min(from + BULK_CHUNK_SIZE, ids.size()));
+            List<Long> changing = new ArrayList<>();
+            for (Registration registration : registrationRepository.lockByIds(chunk)) {
+                String oldStatus = registration.getStatus();
+                if (!fromStatuses.contains(oldStatus) || oldStatus.equals(status)) continue;
+                changing.add(registration.getId());
+                if (releasesSeats && SEAT_HOLDING.contains(oldStatus)) {
+                    freedSeats.merge(registration.getEvent().getId(), 1L, Long::sum);
+                }
+                reportRollupService.registrationStatusChanged(registration.getRegistrationDate(), oldStatus, status, 1);
+            }
+            if (!changing.isEmpty()) {
+                updated += registrationRepository.updateStatusByIds(changing, fromStatuses, status);
+            }
+        }
+
+        freedSeats.forEach(this::handOverSeats);
+        dashboardStatsService.invalidate();
+        return updated;
     }
 
-    public byte[] exportRegistrations(Long eventId, String format) {
-        List<Registration> regs = (eventId == null)
-                ? getAllRegistrations()
-                : registrationRepository.findByEventId(eventId);
+    /**
+     * Sets the status of every registration of an event that is currently in
+     * {@code currentStatus}. The matching rows are locked (in id order) first, and
+     * only those rows are updated and counted into the rollups, so a concurrent
+     * cancellation or single update either happens before and is left out, or
+     * waits and sees the new status.
+     */
+    @Transactional
+    public int updateRegistrationStatuses(Long eventId, String currentStatus, String status, User admin) {
+        checkBulkUpdate(status, admin);
+        if (eventId == null || !(STATUSES.contains(currentStatus) || WAITLISTED.equals(currentStatus))) {
+            throw new RuntimeException("Choose an event and the current status to update");
+        }
+        boolean hadSeats = SEAT_HOLDING.contains(currentStatus);
+        boolean needSeats = SEAT_HOLDING.contains(status);
+        if (needSeats && !hadSeats) {
+            throw new RuntimeException(currentStatus + " registrations need a free seat each; update them one at a time");
+        }
+
+        if (currentStatus.equals(status)) {
+            return 0;
+        }
+
+        List<Long> ids = new ArrayList<>();
+        Map<LocalDate, Long> changedPerDay = new HashMap<>();
+        for (Registration registration : registrationRepository.lockByEventAndStatus(eventId, currentStatus)) {
+            ids.add(registration.getId());
+            changedPerDay.merge(registration.getRegistrationDate().toLocalDate(), 1L, Long::sum);
+        }
+        changedPerDay.forEach((day, count) ->
+                reportRollupService.registrationStatusChanged(day.atStartOfDay(), currentStatus, status, count));
+
+        int updated = 0;
+        for (int from = 0; from < ids.size(); from += BULK_CHUNK_SIZE) {
+            List<Long> chunk = ids.subList(from, Math.min(from + BULK_CHUNK_SIZE, ids.size()));
+            updated += registrationRepository.updateStatusByIds(chunk, Set.of(currentStatus), status);
+        }
+        if (hadSeats && !needSeats && updated > 0) {
+            handOverSeats(eventId, updated);
+        }
+        dashboardStatsService.invalidate();
+        return updated;
+    }
 
-        // Simple CSV export
-        StringBuilder sb = new StringBuilder();
-        sb.append("Registration ID,Event ID,Event Title,User ID,Username,Email,Status,Date\n");
-        for (Registration r : regs) {
-            sb.append(r.getId()).append(',')
-              .append(r.getEvent().getId()).append(',')
-              .append(escapeCsv(r.getEvent().getTitle())).append(',')
-              .append(r.getUser().getId()).append(',')
-              .append(escapeCsv(r.getUser().getUsername())).append(',')
-              .append(escapeCsv(r.getUser().getEmail())).append(',')
-              .append(r.getStatus()).append(',')
-              .append(r.getRegistrationDate()).append('\n');
+    private static void checkBulkUpdate(String status, User admin) {
+        if (!"ADMIN".equals(admin.getRole())) {
+            throw new RuntimeException("Only admins can update registration status");
+        }
+        if (!STATUSES.contains(status)) {
+            throw new RuntimeException("Invalid registration status: " + status);
         }
-        return sb.toString().getBytes(StandardCharsets.UTF_8);
     }
 
-    private String escapeCsv(String s) {
-        if (s == null) return "";
-        if (s.contains(",") || s.contains("\n") || s.contains("\"")) {
-            return '"' + s.replace("\"", "\"\"") + '"';
+    public List<Registration> getPendingRegistrations() {
+        return registrationRepository.findByStatusOrderByRegistrationDateAsc("PENDING");
+    }
+
+    /** One page of the registrations made in the range, oldest first. */
+    public Page<Registration> getRegistrationsByDateRange(LocalDateTime start, LocalDateTime end, int page, int size) {
+        return registrationRepository.findByRegistrationDateBetween(start, end,
+                PageRequest.of(Math.max(page, 0), size, Sort.by("registrationDate", "id")));
+    }
+
+    /**
+     * Streams registrations (all, or one event's) to {@code out} in the given
+     * format, reading them through a database cursor so memory use stays flat
+     * regardless of how many rows are exported.
+     */
+    @Transactional(readOnly = true)
+    public void exportRegistrations(Long eventId, RegistrationExportWriter writer, OutputStream out) throws IOException {
+        try (Stream<RegistrationExportRow> rows = registrationRepository.streamExportRows(eventId)) {
+            writer.write(rows.iterator(), out);
         }
-        return s;
     }
 
+    /**
+     * Cancels the user's registration; a freed seat goes straight to the head of
+     * the waitlist. The row is locked first, so an admin changing its status at
+     * the same time can't release the same seat as well.
+     */
     @Transactional
     public void cancelRegistration(Long registrationId, User user) {
-        Registration registration = registrationRepository.findById(registrationId)
+        Registration registration = registrationRepository.lockById(registrationId)
                 .orElseThrow(() -> new RuntimeException("Registration not found"));
 
         if (!registration.getUser().getId().equals(user.getId())) {
@@ -131,5 +421,70 @@ public class RegistrationService {
         }
 
         registrationRepository.delete(registration);
+        registrationRepository.flush();
+        dashboardStatsService.registrationDeleted(registration.getStatus());
+        reportRollupService.registrationDeleted(registration);
+
+        if (SEAT_HOLDING.contains(registration.getStatus())) {
+            handOverSeats(registration.getEvent().getId(), 1);
+        }
+    }
+
+    // ==============================
+    // WAITLIST
+    // ==============================
+
+    /**
+     * Gives {@code seats} released seats to the oldest waitlisted registrations
+     * of the event, in the caller's transaction. A transferred seat stays
+     * counted, so newcomers can't take it first; seats nobody is waiting for
+     * are released on the counter.
+     */
+    private void handOverSeats(Long eventId, long seats) {
+        long promoted = promote(eventId, seats);
+        if (promoted < seats) {
+            eventRepository.releaseSeats(eventId, seats - promoted);
+        }
+    }
+
+    /**
+     * Takes free seats on the counter for waitlisted registrations until either
+     * runs out, e.g. after the event's capacity was raised. Returns how many
+     * registrations were promoted.
+     */
+    @Transactional
+    public long fillFreeSeats(Long eventId) {
+        long promoted = 0;
+        while (eventRepository.reserveSeat(eventId) == 1) {
+            if (promote(eventId, 1) == 0) {
+                eventRepository.releaseSeats(eventId, 1);
+                break;
+            }
+            promoted++;
+        }
+        return promoted;
+    }
+
+    /**
+     * Moves up to {@code seats} waitlisted registrations to PENDING. The head
+     * rows are locked with SKIP LOCKED, so concurrent cancellations promote
+     * different registrations instead of racing for the same one.
+     */
+    private long promote(Long eventId, long seats) {
+        long promoted = 0;
+        while (promoted < seats) {
+            List<Registration> head = registrationRepository
+                    .lockWaitlistHead(eventId, Limit.of((int) Math.min(seats - promoted, BULK_CHUNK_SIZE)));
+            if (head.isEmpty()) break;
+            int claimed = registrationRepository.promoteWaitlisted(head.stream().map(Registration::getId).toList());
+            if (claimed == 0) break;
+            // the head rows are locked, so every one of them was claimed
+            head.forEach(r -> reportRollupService.registrationStatusChanged(r.getRegistrationDate(), WAITLISTED, "PENDING", 1));
+            promoted += claimed;
+        }
+        if (promoted > 0) {
+            dashboardStatsService.registrationStatusChanged(WAITLISTED, "PENDING", promoted);
+        }
+        return promoted;
     }
 }
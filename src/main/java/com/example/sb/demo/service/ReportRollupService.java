@@ -0,0 +1,232 @@
+package com.example.sb.demo.service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.sb.demo.dto.DailyCount;
+import com.example.sb.demo.dto.LabelCount;
+import com.example.sb.demo.entity.DailyRollup;
+import com.example.sb.demo.entity.Event;
+import com.example.sb.demo.entity.Registration;
+import com.example.sb.demo.entity.User;
+import com.example.sb.demo.repository.DailyRollupRepository;
+import com.example.sb.demo.repository.EventRepository;
+import com.example.sb.demo.repository.RegistrationRepository;
+import com.example.sb.demo.repository.UserRepository;
+
+/**
+ * Daily report rollups: events per creator's department (by event date),
+ * registrations per status (by registration date) and signups per role.
+ *
+ * The write paths in EventService, RegistrationService and UserService report
+ * their changes here after commit. Changes are summed in memory per
+ * (series, day, label) and written every {@code flush-ms} with one upsert per
+ * key, so a burst of registrations costs a handful of statements instead of
+ * contending for the same rollup row. Reports flush first, then sum at most
+ * one row per day and label.
+ *
+ * A nightly job rebuilds all three series for the last and next
+ * {@code reconcile-days} days with GROUP BY queries, correcting drift from
+ * bulk or manual edits (a write that commits while the job runs may be counted
+ * twice until the next run). Accounts created before signup times were
+ * recorded are not counted.
+ */
+@Service
+public class ReportRollupService {
+
+    public static final String EVENTS_BY_DEPARTMENT = "events-by-department";
+    public static final String REGISTRATIONS_BY_STATUS = "registrations-by-status";
+    public static final String SIGNUPS_BY_ROLE = "signups-by-role";
+
+    private static final String UNKNOWN = "Unknown";
+    private static final Logger log = LoggerFactory.getLogger(ReportRollupService.class);
+
+    private final DailyRollupRepository rollupRepository;
+    private final EventRepository eventRepository;
+    private final RegistrationRepository registrationRepository;
+    private final UserRepository userRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int reconcileDays;
+    private final boolean backfillOnStartup;
+
+    private final Map<Key, Long> pending = new ConcurrentHashMap<>();
+    // flush and reconcile both write the table; a lock (not synchronized) keeps virtual threads unpinned
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+    public ReportRollupService(DailyRollupRepository rollupRepository,
+                               EventRepository eventRepository,
+                               RegistrationRepository registrationRepository,
+                               UserRepository userRepository,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${app.reports.rollup.reconcile-days:400}") int reconcileDays,
+                               @Value("${app.reports.rollup.backfill-on-startup:true}") boolean backfillOnStartup) {
+        this.rollupRepository = rollupRepository;
+        this.eventRepository = eventRepository;
+        this.registrationRepository = registrationRepository;
+        this.userRepository = userRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.reconcileDays = reconcileDays;
+        this.backfillOnStartup = backfillOnStartup;
+    }
+
+    // ==============================
+    // WRITE-PATH HOOKS
+    // ==============================
+    public void eventCreated(Event event) {
+        add(EVENTS_BY_DEPARTMENT, event.getEventDate(), event.getCreatedBy().getDepartment(), 1);
+    }
+
+    public void eventDeleted(Event event) {
+        add(EVENTS_BY_DEPARTMENT, event.getEventDate(), event.getCreatedBy().getDepartment(), -1);
+    }
+
+    public void eventRescheduled(Event event, LocalDateTime oldDate) {
+        if (oldDate != null && oldDate.toLocalDate().equals(toDate(event.getEventDate()))) return;
+        add(EVENTS_BY_DEPARTMENT, oldDate, event.getCreatedBy().getDepartment(), -1);
+        add(EVENTS_BY_DEPARTMENT, event.getEventDate(), event.getCreatedBy().getDepartment(), 1);
+    }
+
+    public void registrationCreated(Registration registration) {
+        add(REGISTRATIONS_BY_STATUS, registration.getRegistrationDate(), registration.getStatus(), 1);
+    }
+
+    public void registrationDeleted(Registration registration) {
+        add(REGISTRATIONS_BY_STATUS, registration.getRegistrationDate(), registration.getStatus(), -1);
+    }
+
+    /** {@code count} registrations made on {@code registrationDate}'s day moved between statuses. */
+    public void registrationStatusChanged(LocalDateTime registrationDate, String oldStatus, String newStatus, long count) {
+        if (oldStatus != null && oldStatus.equals(newStatus)) return;
+        add(REGISTRATIONS_BY_STATUS, registrationDate, oldStatus, -count);
+        add(REGISTRATIONS_BY_STATUS, registrationDate, newStatus, count);
+    }
+
+    public void userCreated(User user) {
+        add(SIGNUPS_BY_ROLE, user.getCreatedAt(), user.getRole(), 1);
+    }
+
+    private void add(String series, LocalDateTime at, String label, long delta) {
+        if (at == null || delta == 0) return;
+        Key key = new Key(series, at.toLocalDate(), label(label));
+        AfterCommit.run(() -> pending.merge(key, delta, Long::sum));
+    }
+
+    // ==============================
+    // REPORTS
+    // ==============================
+
+    /** Totals per label of one series over the inclusive day range. */
+    public Map<String, Long> getTotals(String series, LocalDate from, LocalDate to) {
+        flush();
+        Map<String, Long> totals = new LinkedHashMap<>();
+        for (LabelCount row : rollupRepository.sumByLabel(series, from, to)) {
+            totals.put(row.getLabel(), row.getTotal());
+        }
+        return totals;
+    }
+
+    // ==============================
+    // FLUSH AND RECONCILIATION
+    // ==============================
+
+    /** Writes the pending changes; on failure they are kept for the next attempt. */
+    @Scheduled(fixedDelayString = "${app.reports.rollup.flush-ms:5000}")
+    public void flush() {
+        if (pending.isEmpty()) return;
+        writeLock.lock();
+        try {
+            // sorted, so concurrent flushes from several nodes lock rows in the same order
+            Map<Key, Long> batch = new TreeMap<>(Key.ORDER);
+            for (Key key : pending.keySet()) {
+                Long delta = pending.remove(key);
+                if (delta != null && delta != 0) batch.put(key, delta);
+            }
+            if (batch.isEmpty()) return;
+            try {
+                transactionTemplate.executeWithoutResult(status ->
+                        batch.forEach((key, delta) -> rollupRepository.add(key.series(), key.date(), key.label(), delta)));
+            } catch (RuntimeException e) {
+                batch.forEach((key, delta) -> pending.merge(key, delta, Long::sum));
+                log.warn("Report rollup flush of {} rows failed, retrying later: {}", batch.size(), e.getMessage());
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Scheduled(cron = "${app.reports.rollup.reconcile-cron:0 30 3 * * *}")
+    public void reconcile() {
+        LocalDate today = LocalDate.now();
+        reconcile(today.minusDays(reconcileDays), today.plusDays(reconcileDays));
+    }
+
+    /** Rebuilds the rollups of the inclusive day range from the detail tables. */
+    public void reconcile(LocalDate from, LocalDate to) {
+        LocalDateTime start = from.atStartOfDay();
+        LocalDateTime end = to.plusDays(1).atStartOfDay();
+        writeLock.lock();
+        try {
+            rebuild(EVENTS_BY_DEPARTMENT, from, to, () -> eventRepository.countByDayAndDepartment(start, end));
+            rebuild(REGISTRATIONS_BY_STATUS, from, to, () -> registrationRepository.countByDayAndStatus(start, end));
+            rebuild(SIGNUPS_BY_ROLE, from, to, () -> userRepository.countSignupsByDayAndRole(start, end));
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillOnStartup() {
+        if (backfillOnStartup && rollupRepository.count() == 0) {
+            reconcile();
+        }
+    }
+
+    private void rebuild(String series, LocalDate from, LocalDate to, Supplier<List<DailyCount>> source) {
+        // changes already committed are part of the recount
+        pending.keySet().removeIf(key -> key.series().equals(series)
+                && !key.date().isBefore(from) && !key.date().isAfter(to));
+
+        transactionTemplate.executeWithoutResult(status -> {
+            Map<Key, Long> totals = new TreeMap<>(Key.ORDER);
+            for (DailyCount row : source.get()) {
+                totals.merge(new Key(series, row.getDate(), label(row.getLabel())), row.getTotal(), Long::sum);
+            }
+            rollupRepository.deleteRange(series, from, to);
+            rollupRepository.saveAll(totals.entrySet().stream()
+                    .map(e -> new DailyRollup(series, e.getKey().date(), e.getKey().label(), e.getValue()))
+                    .toList());
+        });
+    }
+
+    private static String label(String value) {
+        return value == null || value.isBlank() ? UNKNOWN : value;
+    }
+
+    private static LocalDate toDate(LocalDateTime value) {
+        return value == null ? null : value.toLocalDate();
+    }
+
+    private record Key(String series, LocalDate date, String label) {
+        private static final Comparator<Key> ORDER = Comparator.comparing(Key::series)
+                .thenComparing(Key::date)
+                .thenComparing(Key::label);
+    }
+}
@@ -0,0 +1,243 @@
+package com.example.sb.demo.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.sb.demo.dto.UserSearchRow;
+import com.example.sb.demo.entity.User;
+import com.example.sb.demo.repository.UserRepository;
+
+/**
+ * In-memory search index over username, full name and email for /admin/users.
+ *
+ * Queries of three or more characters match anywhere in a field (trigram
+ * postings, candidates verified with contains); shorter queries match word
+ * prefixes. Postings are sorted int arrays, so 100k users take a few tens of
+ * MB. The index is built at startup, updated after commit by UserService, and
+ * picks up users created on other nodes (ids above the highest indexed id)
+ * before each search.
+ */
+@Component
+public class UserSearchIndex {
+
+    private static final int GRAM = 3;
+
+    private final UserRepository userRepository;
+
+    private final Map<Integer, Entry> entries = new ConcurrentHashMap<>();
+    private final Map<String, Postings> grams = new ConcurrentHashMap<>();
+    private final NavigableMap<String, Postings> words = new ConcurrentSkipListMap<>();
+    private volatile long maxIndexedId;
+    // a lock rather than synchronized: catchUp() reads from the database while holding it,
+    // which would pin the carrier thread when requests run on virtual threads
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+    public UserSearchIndex(UserRepository userRepository) {
+        this.userRepository = userRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void build() {
+        catchUp();
+    }
+
+    /** Indexes users added since the last call (e.g. by another node). */
+    @Transactional(readOnly = true)
+    public void catchUp() {
+        writeLock.lock();
+        try (Stream<UserSearchRow> rows = userRepository.streamSearchRowsAfter(maxIndexedId)) {
+            rows.forEach(this::put);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /** Adds or refreshes a user once the surrounding transaction commits. */
+    public void index(User user) {
+        UserSearchRow row = new UserSearchRow(user.getId(), user.getUsername(), user.getFullName(),
+                user.getEmail(), user.getRole());
+        AfterCommit.run(() -> put(row));
+    }
+
+    /** Ids of matching users in ascending order; a blank query matches nothing. */
+    public List<Long> search(String query, String role) {
+        String q = query == null ? "" : query.trim().toLowerCase(Locale.ROOT);
+        if (q.isEmpty()) return List.of();
+
+        int[] candidates = q.length() >= GRAM ? gramCandidates(q) : prefixCandidates(q);
+
+        List<Long> ids = new ArrayList<>();
+        for (int id : candidates) {
+            Entry e = entries.get(id);
+            if (e == null) continue;
+            if (role != null && !role.isEmpty() && !role.equals(e.role)) continue;
+            if (q.length() >= GRAM && !e.contains(q)) continue;
+            ids.add((long) id);
+        }
+        return ids;
+    }
+
+    private int[] gramCandidates(String q) {
+        int[] result = null;
+        for (String gram : gramsOf(q)) {
+            Postings p = grams.get(gram);
+            if (p == null) return new int[0];
+            result = (result == null) ? p.snapshot() : intersect(result, p.snapshot());
+            if (result.length == 0) break;
+        }
+        return result;
+    }
+
+    private int[] prefixCandidates(String q) {
+        Set<Integer> ids = new HashSet<>();
+        for (Postings p : words.subMap(q, true, q + Character.MAX_VALUE, false).values()) {
+            for (int id : p.snapshot()) {
+                ids.add(id);
+            }
+        }
+        int[] sorted = ids.stream().mapToInt(Integer::intValue).toArray();
+        Arrays.sort(sorted);
+        return sorted;
+    }
+
+    private void put(UserSearchRow row) {
+        writeLock.lock();
+        try {
+            int id = Math.toIntExact(row.getId());
+            Entry entry = new Entry(row);
+            Entry old = entries.put(id, entry);
+            if (old == null || !old.text.equals(entry.text)) {
+                if (old != null) {
+                    gramsOf(old.text).forEach(g -> remove(grams, g, id));
+                    wordsOf(old.text).forEach(w -> remove(words, w, id));
+                }
+                gramsOf(entry.text).forEach(g -> grams.computeIfAbsent(g, k -> new Postings()).add(id));
+                wordsOf(entry.text).forEach(w -> words.computeIfAbsent(w, k -> new Postings()).add(id));
+            }
+            maxIndexedId = Math.max(maxIndexedId, row.getId());
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private static void remove(Map<String, Postings> index, String key, int id) {
+        Postings p = index.get(key);
+        if (p != null) p.remove(id);
+    }
+
+    private static Set<String> gramsOf(String text) {
+        Set<String> result = new HashSet<>();
+        for (String field : text.split("\n")) {
+            for (int i = 0; i + GRAM <= field.length(); i++) {
+                result.add(field.substring(i, i + GRAM));
+            }
+        }
+        return result;
+    }
+
+    private static Set<String> wordsOf(String text) {
+        Set<String> result = new HashSet<>();
+        for (String word : text.split("[^\\p{L}\\p{N}]+")) {
+            if (!word.isEmpty()) result.add(word);
+        }
+        for (String field : text.split("\n")) {
+            if (!field.isEmpty()) result.add(field);
+        }
+        return result;
+    }
+
+    private static int[] intersect(int[] a, int[] b) {
+        int[] out = new int[Math.min(a.length, b.length)];
+        int i = 0, j = 0, n = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] < b[j]) i++;
+            else if (a[i] > b[j]) j++;
+            else {
+                out[n++] = a[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(out, n);
+    }
+
+    private static final class Entry {
+        private final String role;
+        private final String text; // lower-cased fields separated by '\n'
+
+        private Entry(UserSearchRow row) {
+            this.role = row.getRole();
+            this.text = String.join("\n", lower(row.getUsername()), lower(row.getFullName()), lower(row.getEmail()));
+        }
+
+        private boolean contains(String q) {
+            for (String field : text.split("\n")) {
+                if (field.contains(q)) return true;
+            }
+            return false;
+        }
+
+        private static String lower(String s) {
+            return s == null ? "" : s.toLowerCase(Locale.ROOT);
+        }
+    }
+
+    /**
+     * Sorted int posting list. Readers take an immutable snapshot that is
+     * rebuilt lazily after a write.
+     */
+    private static final class Postings {
+        private int[] ids = new int[4];
+        private volatile int[] published = new int[0];
+        private int size;
+
+        private synchronized void add(int id) {
+            int pos = Arrays.binarySearch(ids, 0, size, id);
+            if (pos >= 0) return;
+            pos = -pos - 1;
+            if (size == ids.length) ids = Arrays.copyOf(ids, size * 2);
+            System.arraycopy(ids, pos, ids, pos + 1, size - pos);
+            ids[pos] = id;
+            size++;
+            published = null;
+        }
+
+        private synchronized void remove(int id) {
+            int pos = Arrays.binarySearch(ids, 0, size, id);
+            if (pos < 0) return;
+            System.arraycopy(ids, pos + 1, ids, pos, size - pos - 1);
+            size--;
+            published = null;
+        }
+
+        private int[] snapshot() {
+            int[] p = published;
+            if (p == null) {
+                synchronized (this) {
+                    p = published;
+                    if (p == null) {
+                        p = Arrays.copyOf(ids, size);
+                        published = p;
+                    }
+                }
+            }
+            return p;
+        }
+    }
+}
@@ -1,16 +1,31 @@
 package com.example.sb.demo.service;
 
+import java.time.DayOfWeek;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
-import java.util.Objects;
+import java.util.Map;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import com.example.sb.demo.dto.LoginRequest;
 import com.example.sb.demo.dto.RegisterRequest;
+import com.example.sb.demo.dto.SessionUser;
+import com.example.sb.demo.dto.SignupCohort;
+import com.example.sb.demo.dto.SignupCount;
+import com.example.sb.demo.entity.Department;
 import com.example.sb.demo.entity.User;
 import com.example.sb.demo.repository.UserRepository;
 
@@ -20,61 +35,95 @@ import jakarta.servlet.http.HttpSession;
 public class UserService {
 
     private final UserRepository userRepository;
-    private static final String USER_SESSION_KEY = "user_id";
-    private static final String USER_ROLE_KEY = "user_role";
+    private final DashboardStatsService dashboardStatsService;
+    private final UserSearchIndex userSearchIndex;
+    private final PasswordService passwordService;
+    private final ReportRollupService reportRollupService;
+    private final DepartmentDirectory departmentDirectory;
+    private final TransactionTemplate transactionTemplate;
+    public static final String SESSION_USER_KEY = "session_user";
+    private static final Comparator<SignupCohort> COHORT_ORDER = Comparator.comparing(SignupCohort::start)
+            .thenComparing(SignupCohort::department, Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparing(SignupCohort::year, Comparator.nullsLast(Comparator.naturalOrder()));
 
   
-    public UserService(UserRepository userRepository) {
+    public UserService(UserRepository userRepository, DashboardStatsService dashboardStatsService,
+                       UserSearchIndex userSearchIndex, PasswordService passwordService,
+                       ReportRollupService reportRollupService, DepartmentDirectory departmentDirectory,
+                       PlatformTransactionManager transactionManager) {
         this.userRepository = userRepository;
+        this.dashboardStatsService = dashboardStatsService;
+        this.userSearchIndex = userSearchIndex;
+        this.passwordService = passwordService;
+        this.reportRollupService = reportRollupService;
+        this.departmentDirectory = departmentDirectory;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
     }
 
     // ==============================
     // STUDENT REGISTRATION
     // ==============================
-    @Transactional
+    // Signups are not @Transactional: the BCrypt hash and the department lookup run
+    // before the transaction starts, so a signup never holds a connection while it
+    // waits for the password pool or needs a second one for a new department
     public User registerUser(RegisterRequest request) {
-        if (userRepository.existsByUsername(request.getUsername())) {
-            throw new RuntimeException("Username already exists");
-        }
-        if (userRepository.existsByEmail(request.getEmail())) {
-            throw new RuntimeException("Email already exists");
-        }
+        checkAvailable(request);
+        String passwordHash = passwordService.hash(request.getPassword());
+        Department department = departmentDirectory.resolve(request.getDepartment());
+        return transactionTemplate.execute(status -> save(newUser(request, passwordHash), department));
+    }
 
+    private User newUser(RegisterRequest request, String passwordHash) {
         User user = new User();
         user.setUsername(request.getUsername());
-        user.setPassword(request.getPassword()); // ⚠️ Should be hashed in production
+        user.setPassword(passwordHash);
         user.setEmail(request.getEmail());
         user.setFullName(request.getFullName());
         user.setStudentId(request.getStudentId());
-        user.setDepartment(request.getDepartment());
         user.setYear(request.getYear());
         user.setRole("STUDENT"); // Force role for normal registration
-
-        return userRepository.save(user);
+        return user;
     }
 
     // ==============================
     // ADMIN REGISTRATION
     // ==============================
-    @Transactional
     public User registerAdmin(RegisterRequest request) {
-        if (userRepository.existsByUsername(request.getUsername())) {
-            throw new RuntimeException("Username already exists");
-        }
-        if (userRepository.existsByEmail(request.getEmail())) {
-            throw new RuntimeException("Email already exists");
-        }
+        checkAvailable(request);
+        String passwordHash = passwordService.hash(request.getPassword());
+        Department department = departmentDirectory.resolve(request.getDepartment());
+        return transactionTemplate.execute(status -> save(newAdmin(request, passwordHash), department));
+    }
 
+    private User newAdmin(RegisterRequest request, String passwordHash) {
         User user = new User();
         user.setUsername(request.getUsername());
-        user.setPassword(request.getPassword());
+        user.setPassword(passwordHash);
         user.setEmail(request.getEmail());
         user.setFullName(request.getFullName());
-        user.setDepartment(request.getDepartment());
         user.setYear(request.getYear());
         user.setRole("ADMIN"); // ✅ Important
+        return user;
+    }
 
-        return userRepository.save(user);
+    // Checked before spending a hash on the signup
+    private void checkAvailable(RegisterRequest request) {
+        if (userRepository.existsByUsername(request.getUsername())) {
+            throw new RuntimeException("Username already exists");
+        }
+        if (userRepository.existsByEmail(request.getEmail())) {
+            throw new RuntimeException("Email already exists");
+        }
+    }
+
+    private User save(User user, Department department) {
+        user.setDepartmentRef(department);
+        user.setDepartment(department == null ? null : department.getName());
+        User saved = userRepository.save(user);
+        dashboardStatsService.userCreated(saved.getRole());
+        reportRollupService.userCreated(saved);
+        userSearchIndex.index(saved);
+        return saved;
     }
 
 
@@ -83,37 +132,27 @@ public class UserService {
     // ==============================
     public Optional<User> authenticateUser(LoginRequest request) {
         return userRepository.findByUsername(request.getUsername())
-                .filter(user -> user.getPassword().equals(request.getPassword()));
+                .filter(user -> passwordService.matches(user, request.getPassword()));
     }
 
-//    public void login(HttpSession session, User user) {
-//        session.setAttribute(USER_SESSION_KEY, user.getId());
-//        session.setAttribute(USER_ROLE_KEY, user.getRole());
-//    }
-    
+    /** Keeps only a small {@link SessionUser} in the session, never the entity itself. */
     public void login(HttpSession session, User user) {
-        session.setAttribute("user", user);
-        session.setAttribute("user_role", user.getRole());
+        session.setAttribute(SESSION_USER_KEY, SessionUser.of(user));
     }
 
     public void logout(HttpSession session) {
         session.invalidate();
     }
 
-//    public Optional<User> getCurrentUser(HttpSession session) {
-//        Object userId = session.getAttribute(USER_SESSION_KEY);
-//        if (userId != null) {
-//            return userRepository.findById((Long) userId);
-//        }
-//        return Optional.empty();
-//    }
-    
+    public Optional<SessionUser> getSessionUser(HttpSession session) {
+        return session.getAttribute(SESSION_USER_KEY) instanceof SessionUser sessionUser
+                ? Optional.of(sessionUser)
+                : Optional.empty();
+    }
+
+    /** The logged-in user as currently stored, so role changes and deletions apply immediately. */
     public Optional<User> getCurrentUser(HttpSession session) {
-        Object userObj = session.getAttribute("user");
-        if (userObj instanceof User user) {
-            return Optional.of(user);
-        }
-        return Optional.empty();
+        return getSessionUser(session).flatMap(sessionUser -> userRepository.findById(sessionUser.id()));
     }
 
     // ==============================
@@ -132,8 +171,12 @@ public class UserService {
             throw new RuntimeException("Cannot modify your own role");
         }
 
+        String oldRole = user.getRole();
         user.setRole(role);
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        dashboardStatsService.userRoleChanged(oldRole, role);
+        userSearchIndex.index(saved);
+        return saved;
     }
 
     @Transactional
@@ -162,16 +205,60 @@ public class UserService {
         return userRepository.findAll();
     }
 
+    /**
+     * One page of users matching the query (username, full name or email) and
+     * role, ordered by id. Matching runs against UserSearchIndex; only the users
+     * on the requested page are loaded from the database.
+     */
+    @Transactional(readOnly = true)
+    public Page<User> searchUsers(String query, String role, int page, int size) {
+        Pageable pageable = PageRequest.of(Math.max(page, 0), size, Sort.by("id"));
+        boolean byRole = role != null && !role.isEmpty();
+
+        if (query == null || query.isBlank()) {
+            return byRole ? userRepository.findByRole(role, pageable) : userRepository.findAll(pageable);
+        }
+
+        userSearchIndex.catchUp();
+        List<Long> ids = userSearchIndex.search(query, role);
+        int from = (int) Math.min(pageable.getOffset(), ids.size());
+        int to = Math.min(from + size, ids.size());
+
+        List<User> users = userRepository.findAllById(ids.subList(from, to));
+        users.sort(Comparator.comparing(User::getId));
+        return new PageImpl<>(users, pageable, ids.size());
+    }
+
+    /** Department names from the cached dictionary, sorted. */
     public List<String> getAllDepartments() {
-        return userRepository.findAll().stream()
-                .map(User::getDepartment)
-                .filter(Objects::nonNull)
-                .distinct()
-                .collect(Collectors.toList());
+        return departmentDirectory.getNames();
     }
 
-    public List<User> getUsersByDateRange(LocalDateTime start, LocalDateTime end) {
-        return getAllUsers();
+    /** One page of the users who signed up in the range, oldest first. */
+    public Page<User> getUsersByDateRange(LocalDateTime start, LocalDateTime end, int page, int size) {
+        return userRepository.findByCreatedAtBetween(start, end,
+                PageRequest.of(Math.max(page, 0), size, Sort.by("createdAt", "id")));
+    }
+
+    /**
+     * Signups in the range per week (starting Monday) or month, department and
+     * year of study. One GROUP BY over idx_users_created_at returns a row per
+     * day, department and year, which is folded into cohorts here, so the cost
+     * follows the length of the range rather than the number of users.
+     */
+    public List<SignupCohort> getSignupCohorts(LocalDateTime start, LocalDateTime end, String cohort) {
+        boolean weekly = "week".equals(cohort);
+        Map<SignupCohort, Long> totals = new HashMap<>();
+        for (SignupCount row : userRepository.countSignupsByDayDepartmentAndYear(start, end)) {
+            LocalDate cohortStart = weekly
+                    ? row.getDate().with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY))
+                    : row.getDate().withDayOfMonth(1);
+            totals.merge(new SignupCohort(cohortStart, row.getDepartment(), row.getYear(), 0), row.getTotal(), Long::sum);
+        }
+        return totals.entrySet().stream()
+                .map(e -> new SignupCohort(e.getKey().start(), e.getKey().department(), e.getKey().year(), e.getValue()))
+                .sorted(COHORT_ORDER)
+                .toList();
     }
 
     public boolean isAdmin(User user) {
@@ -0,0 +1,73 @@
+package com.example.sb.demo;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.availability.ApplicationAvailability;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.example.sb.demo.config.WarmUpRunner;
+import com.example.sb.demo.entity.User;
+import com.example.sb.demo.repository.UserRepository;
+
+/**
+ * Boots the application on a random port with the production template cache
+ * and warm-up enabled, and records the time until it is ready and until the
+ * first request has been answered.
+ */
+class StartupTimeTest {
+
+    private static final Logger log = LoggerFactory.getLogger(StartupTimeTest.class);
+
+    @Test
+    void recordsTimeToFirstRequest() throws Exception {
+        long start = System.nanoTime();
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(DemoApplication.class).run(
+                "--server.port=0",
+                // its own database: create-drop must not touch the one shared by the other test contexts
+                "--spring.datasource.url=jdbc:h2:mem:startup;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1;NON_KEYWORDS=YEAR,USER,VALUE,KEY",
+                "--spring.thymeleaf.cache=true",
+                "--app.warmup.enabled=true")) {
+            long ready = System.nanoTime();
+            assertEquals(ReadinessState.ACCEPTING_TRAFFIC,
+                    context.getBean(ApplicationAvailability.class).getReadinessState());
+
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            HttpResponse<Void> first = HttpClient.newHttpClient().send(
+                    HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/events")).build(),
+                    HttpResponse.BodyHandlers.discarding());
+            long answered = System.nanoTime();
+            assertEquals(200, first.statusCode());
+
+            log.info("Startup: ready after {} ms, first request took {} ms, time to first request {} ms",
+                    TimeUnit.NANOSECONDS.toMillis(ready - start),
+                    TimeUnit.NANOSECONDS.toMillis(answered - ready),
+                    TimeUnit.NANOSECONDS.toMillis(answered - start));
+
+            // the dashboard is only warmed once there is an admin to render it for
+            User admin = new User();
+            admin.setUsername("warmup-admin");
+            admin.setPassword("secret");
+            admin.setEmail("warmup-admin@college.test");
+            admin.setFullName("Warm-up Admin");
+            admin.setRole("ADMIN");
+            context.getBean(UserRepository.class).save(admin);
+
+            List<String> warmed = context.getBean(WarmUpRunner.class).warmUp();
+            assertTrue(warmed.containsAll(List.of("/", "/events", "/admin/dashboard")), "warmed " + warmed);
+        }
+    }
+}
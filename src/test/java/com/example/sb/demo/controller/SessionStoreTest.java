@@ -0,0 +1,73 @@
+package com.example.sb.demo.controller;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.redirectedUrl;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.example.sb.demo.entity.User;
+import com.example.sb.demo.repository.UserRepository;
+
+import jakarta.servlet.http.Cookie;
+
+/**
+ * Logs in through the real filter chain and checks that the session lives in
+ * the JDBC store, holds only the compact principal, and is picked up again
+ * from nothing but the session cookie (as another node would).
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class SessionStoreTest {
+
+    private static final int MAX_PRINCIPAL_BYTES = 400;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void loginStoresCompactPrincipalInJdbcSessionStore() throws Exception {
+        User admin = new User();
+        admin.setUsername("session-admin");
+        admin.setPassword("secret");
+        admin.setEmail("session-admin@example.com");
+        admin.setFullName("Session Admin");
+        admin.setRole("ADMIN");
+        userRepository.save(admin);
+
+        Cookie sessionCookie = mockMvc.perform(post("/login")
+                        .param("username", "session-admin")
+                        .param("password", "secret"))
+                .andExpect(redirectedUrl("/admin/dashboard"))
+                .andReturn().getResponse().getCookie("SESSION");
+        assertNotNull(sessionCookie);
+        // the legacy plaintext password was upgraded on this first successful login
+        assertTrue(userRepository.findByUsername("session-admin").orElseThrow().getPassword().startsWith("$2"));
+
+        mockMvc.perform(get("/events").cookie(sessionCookie))
+                .andExpect(status().isOk())
+                .andExpect(content().string(Matchers.containsString("Admin Dashboard")));
+
+        Integer principalBytes = jdbcTemplate.queryForObject(
+                "select max(length(attribute_bytes)) from spring_session_attributes where attribute_name = 'session_user'",
+                Integer.class);
+        assertNotNull(principalBytes);
+        assertTrue(principalBytes < MAX_PRINCIPAL_BYTES, "session principal is " + principalBytes + " bytes");
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.sb.demo.export;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+
+import org.junit.jupiter.api.Test;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+
+import com.example.sb.demo.dto.RegistrationExportRow;
+
+/**
+ * Writes rows with awkward values and reads the files back: the CSV with an
+ * RFC 4180 parser, the XLSX by unzipping it and parsing every part as XML.
+ */
+class RegistrationExportWriterTest {
+
+    private static final List<RegistrationExportRow> ROWS = List.of(
+            new RegistrationExportRow(1L, 10L, "Fest, \"Day 1\"\nNight", 100L, "ana", "ana@college.test",
+                    "PENDING", LocalDateTime.of(2025, 3, 1, 9, 30)),
+            new RegistrationExportRow(2L, 10L, "R&D <Lab> \u0001", 101L, "bo", null,
+                    "APPROVED", null));
+
+    @Test
+    void csvRoundTripsEscapedValues() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new CsvRegistrationExportWriter().write(ROWS.iterator(), out);
+
+        List<List<String>> records = parseCsv(out.toString(StandardCharsets.UTF_8));
+        assertEquals(3, records.size());
+        assertEquals(Arrays.asList(RegistrationExportWriter.HEADERS), records.get(0));
+        assertEquals(List.of("1", "10", "Fest, \"Day 1\"\nNight", "100", "ana", "ana@college.test",
+                "PENDING", "2025-03-01T09:30"), records.get(1));
+        assertEquals(List.of("2", "10", "R&D <Lab> \u0001", "101", "bo", "", "APPROVED", ""), records.get(2));
+    }
+
+    @Test
+    void xlsxIsAWellFormedWorkbook() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new XlsxRegistrationExportWriter().write(ROWS.iterator(), out);
+
+        Map<String, Document> parts = new HashMap<>();
+        try (ZipInputStream zip = new ZipInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+            for (ZipEntry entry; (entry = zip.getNextEntry()) != null; ) {
+                parts.put(entry.getName(), parseXml(zip.readAllBytes()));
+            }
+        }
+        assertEquals(List.of("[Content_Types].xml", "_rels/.rels", "xl/_rels/workbook.xml.rels",
+                "xl/workbook.xml", "xl/worksheets/sheet1.xml"), parts.keySet().stream().sorted().toList());
+        assertEquals("Registrations", ((Element) parts.get("xl/workbook.xml")
+                .getElementsByTagName("sheet").item(0)).getAttribute("name"));
+
+        NodeList rows = parts.get("xl/worksheets/sheet1.xml").getElementsByTagName("row");
+        assertEquals(3, rows.getLength());
+        assertEquals(Arrays.asList(RegistrationExportWriter.HEADERS), cells((Element) rows.item(0)));
+        assertEquals(List.of("1", "10", "Fest, \"Day 1\"\nNight", "100", "ana", "ana@college.test",
+                "PENDING", "2025-03-01 09:30:00"), cells((Element) rows.item(1)));
+        // control characters XML can't hold are dropped
+        assertEquals(List.of("2", "10", "R&D <Lab> ", "101", "bo", "", "APPROVED", ""), cells((Element) rows.item(2)));
+    }
+
+    private static List<String> cells(Element row) {
+        List<String> values = new ArrayList<>();
+        NodeList cells = row.getElementsByTagName("c");
+        for (int i = 0; i < cells.getLength(); i++) {
+            values.add(cells.item(i).getTextContent());
+        }
+        return values;
+    }
+
+    private static Document parseXml(byte[] xml) throws Exception {
+        DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+        factory.setNamespaceAware(true);
+        return factory.newDocumentBuilder().parse(new ByteArrayInputStream(xml));
+    }
+
+    private static List<List<String>> parseCsv(String csv) {
+        List<List<String>> records = new ArrayList<>();
+        List<String> record = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < csv.length(); i++) {
+            char c = csv.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < csv.length() && csv.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                record.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n') {
+                record.add(field.toString());
+                field.setLength(0);
+                records.add(record);
+                record = new ArrayList<>();
+            } else {
+                field.append(c);
+            }
+        }
+        assertTrue(record.isEmpty() && field.isEmpty(), "last record not terminated");
+        return records;
+    }
+}
@@ -0,0 +1,376 @@
+package com.example.sb.demo.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.example.sb.demo.dto.QueueTicket;
+import com.example.sb.demo.entity.Event;
+import com.example.sb.demo.entity.Registration;
+import com.example.sb.demo.entity.User;
+import com.example.sb.demo.repository.EventRepository;
+import com.example.sb.demo.repository.RegistrationRepository;
+import com.example.sb.demo.repository.UserRepository;
+
+/**
+ * Fires a registration-opening storm at a single event and checks that the
+ * seat counter never lets more registrations through than there are seats,
+ * that concurrent cancellations and capacity increases hand seats to the
+ * waitlist in order, that racing status changes release each seat once, that
+ * the admission queue registers a burst in arrival order, and that the report
+ * rollups kept by the write paths agree with a recount.
+ */
+@SpringBootTest(properties = "app.registration.queue.enabled=true")
+class RegistrationConcurrencyTest {
+
+    private static final Logger log = LoggerFactory.getLogger(RegistrationConcurrencyTest.class);
+
+    private static final int REQUESTS = 500;
+    private static final int SEATS = 100;
+
+    @Autowired
+    private RegistrationService registrationService;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private RegistrationRepository registrationRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AdmissionQueue admissionQueue;
+
+    @Autowired
+    private EventService eventService;
+
+    @Autowired
+    private ReportRollupService reportRollupService;
+
+    @Test
+    void concurrentRegistrationsNeverOverbook() throws Exception {
+        User organizer = newUser("storm-organizer");
+        Event event = newEvent(organizer, SEATS);
+
+        List<User> students = new ArrayList<>();
+        for (int i = 0; i < REQUESTS; i++) {
+            students.add(newUser("storm-student-" + i));
+        }
+
+        AtomicInteger registered = new AtomicInteger();
+        AtomicInteger waitlisted = new AtomicInteger();
+        long elapsed = runConcurrently(students.size(), i -> {
+            Registration registration = registrationService.registerForEvent(event, students.get(i));
+            if (RegistrationService.WAITLISTED.equals(registration.getStatus())) {
+                waitlisted.incrementAndGet();
+            } else {
+                registered.incrementAndGet();
+            }
+        });
+
+        assertEquals(SEATS, registered.get());
+        assertEquals(REQUESTS - SEATS, waitlisted.get());
+        assertEquals(REQUESTS, registrationRepository.countByEvent(event));
+        assertEquals(SEATS, eventRepository.findById(event.getId()).orElseThrow().getRegisteredCount());
+
+        log.info("{} concurrent registrations against one event: {} ms, {} registrations/sec",
+                REQUESTS, elapsed, REQUESTS * 1000 / Math.max(elapsed, 1));
+    }
+
+    @Test
+    void concurrentCancellationsPromoteWaitlistInOrder() throws Exception {
+        int seats = 20;
+        int waiting = 30;
+        int cancellations = 10;
+
+        User organizer = newUser("waitlist-organizer");
+        Event event = newEvent(organizer, seats);
+
+        List<Registration> seated = new ArrayList<>();
+        List<User> seatedUsers = new ArrayList<>();
+        for (int i = 0; i < seats; i++) {
+            User student = newUser("waitlist-seated-" + i);
+            seatedUsers.add(student);
+            seated.add(registrationService.registerForEvent(event, student));
+        }
+        List<Long> waitlist = new ArrayList<>();
+        for (int i = 0; i < waiting; i++) {
+            Registration registration = registrationService.registerForEvent(event, newUser("waitlist-queued-" + i));
+            assertEquals(RegistrationService.WAITLISTED, registration.getStatus());
+            assertEquals(i + 1, registrationService.getWaitlistPosition(registration));
+            waitlist.add(registration.getId());
+        }
+
+        runConcurrently(cancellations, i -> registrationService.cancelRegistration(seated.get(i).getId(), seatedUsers.get(i)));
+
+        Set<Long> promoted = new HashSet<>();
+        long stillWaiting = 0;
+        for (Registration registration : registrationRepository.findByEvent(event)) {
+            if (RegistrationService.WAITLISTED.equals(registration.getStatus())) {
+                stillWaiting++;
+            } else if (waitlist.contains(registration.getId())) {
+                promoted.add(registration.getId());
+            }
+        }
+
+        assertEquals(Set.copyOf(waitlist.subList(0, cancellations)), promoted);
+        assertEquals(waiting - cancellations, stillWaiting);
+        assertEquals(seats, eventRepository.findById(event.getId()).orElseThrow().getRegisteredCount());
+    }
+
+    @Test
+    void bulkRejectRacingCancellationsReleasesEachSeatOnce() throws Exception {
+        int seats = 30;
+        int rejected = 20;
+
+        User admin = newUser("race-admin");
+        admin.setRole("ADMIN");
+        Event event = newEvent(admin, seats);
+        List<Registration> seated = new ArrayList<>();
+        List<User> seatedUsers = new ArrayList<>();
+        for (int i = 0; i < seats; i++) {
+            User student = newUser("race-student-" + i);
+            seatedUsers.add(student);
+            seated.add(registrationService.registerForEvent(event, student));
+        }
+        List<Long> rejectIds = seated.subList(0, rejected).stream().map(Registration::getId).toList();
+
+        // the first half of the rejected registrations is also cancelled by its owner at the same time
+        runConcurrently(rejected / 2 + 1, i -> {
+            if (i == 0) {
+                registrationService.updateRegistrationStatuses(rejectIds, "REJECTED", admin);
+            } else {
+                registrationService.cancelRegistration(seated.get(i - 1).getId(), seatedUsers.get(i - 1));
+            }
+        });
+
+        assertEquals(seats - rejected, eventRepository.findById(event.getId()).orElseThrow().getRegisteredCount());
+    }
+
+    @Test
+    void raisingCapacityPromotesFromWaitlistInOrder() {
+        int seats = 5;
+        int waiting = 10;
+        int added = 4;
+
+        User admin = newUser("capacity-admin");
+        admin.setRole("ADMIN");
+        Event event = newEvent(admin, seats);
+        for (int i = 0; i < seats; i++) {
+            registrationService.registerForEvent(event, newUser("capacity-seated-" + i));
+        }
+        List<Registration> waitlist = new ArrayList<>();
+        for (int i = 0; i < waiting; i++) {
+            waitlist.add(registrationService.registerForEvent(event, newUser("capacity-queued-" + i)));
+        }
+
+        Event details = new Event();
+        details.setTitle(event.getTitle());
+        details.setDescription(event.getDescription());
+        details.setVenue(event.getVenue());
+        details.setEventDate(event.getEventDate());
+        details.setMaxParticipants(seats + added);
+        eventService.updateEvent(event.getId(), details, admin);
+
+        for (int i = 0; i < waiting; i++) {
+            Registration registration = registrationRepository.findById(waitlist.get(i).getId()).orElseThrow();
+            assertEquals(i < added ? "PENDING" : RegistrationService.WAITLISTED, registration.getStatus());
+            assertEquals(i < added ? 0 : i - added + 1, registrationService.getWaitlistPosition(registration));
+        }
+        assertEquals(seats + added, eventRepository.findById(event.getId()).orElseThrow().getRegisteredCount());
+    }
+
+    @Test
+    void admissionQueueRegistersInArrivalOrder() throws Exception {
+        int seats = 20;
+        int students = 60;
+
+        User organizer = newUser("queue-organizer");
+        Event event = newEvent(organizer, seats);
+
+        List<User> queued = new ArrayList<>();
+        List<String> tickets = new ArrayList<>();
+        for (int i = 0; i < students; i++) {
+            User student = newUser("queue-student-" + i);
+            queued.add(student);
+            tickets.add(admissionQueue.enqueue(event.getId(), student.getId()).ticket());
+        }
+        // impatient users clicking again keep their place in line
+        Set<String> retried = ConcurrentHashMap.newKeySet();
+        runConcurrently(students, i -> retried.add(admissionQueue.enqueue(event.getId(), queued.get(i).getId()).ticket()));
+        assertTrue(retried.stream().allMatch(t -> tickets.contains(t)), "retry issued a new ticket");
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (admissionQueue.findTicket(event.getId(), queued.get(students - 1).getId())
+                .map(QueueTicket::isQueued).orElse(true)) {
+            assertTrue(System.nanoTime() < deadline, "queue was not drained in time");
+            Thread.sleep(50);
+        }
+
+        for (int i = 0; i < students; i++) {
+            QueueTicket ticket = admissionQueue.findTicket(event.getId(), queued.get(i).getId()).orElseThrow();
+            assertEquals(i < seats ? AdmissionQueue.REGISTERED : RegistrationService.WAITLISTED, ticket.state());
+            Registration registration = registrationService.findRegistration(event, queued.get(i)).orElseThrow();
+            assertEquals(i < seats ? 0 : i - seats + 1, registrationService.getWaitlistPosition(registration));
+        }
+        assertEquals(seats, eventRepository.findById(event.getId()).orElseThrow().getRegisteredCount());
+    }
+
+    @Test
+    void concurrentDuplicateRegistrationsAreRejected() throws Exception {
+        User organizer = newUser("dup-organizer");
+        User student = newUser("dup-student");
+        Event event = newEvent(organizer, SEATS);
+
+        AtomicInteger registered = new AtomicInteger();
+        AtomicInteger duplicates = new AtomicInteger();
+        runConcurrently(20, i -> {
+            try {
+                registrationService.registerForEvent(event, student);
+                registered.incrementAndGet();
+            } catch (RuntimeException e) {
+                if ("You have already registered for this event".equals(e.getMessage())) {
+                    duplicates.incrementAndGet();
+                } else {
+                    throw e;
+                }
+            }
+        });
+
+        assertEquals(1, registered.get());
+        assertEquals(19, duplicates.get());
+        assertEquals(1, eventRepository.findById(event.getId()).orElseThrow().getRegisteredCount());
+    }
+
+    @Test
+    void registrationForMissingEventIsReportedByForeignKey() {
+        User student = newUser("missing-event-student");
+
+        RuntimeException e = assertThrows(RuntimeException.class,
+                () -> registrationService.registerForEvent(Long.MAX_VALUE, student.getId()));
+        assertEquals("Event not found with ID: " + Long.MAX_VALUE, e.getMessage());
+    }
+
+    @Test
+    void reportRollupsMatchRecountAfterConcurrentWrites() throws Exception {
+        int seats = 10;
+        int students = 30;
+        LocalDate today = LocalDate.now();
+        // rows written straight through the repositories by other tests have no hooks
+        reportRollupService.reconcile(today.minusDays(1), today.plusDays(30));
+        Map<String, Long> before = reportRollupService.getTotals(ReportRollupService.REGISTRATIONS_BY_STATUS, today, today);
+
+        User admin = newUser("rollup-admin");
+        admin.setRole("ADMIN");
+        Event event = newEvent(admin, seats);
+        List<User> queued = new ArrayList<>();
+        for (int i = 0; i < students; i++) {
+            queued.add(newUser("rollup-student-" + i));
+        }
+        List<Registration> registrations = new ArrayList<>();
+        runConcurrently(students, i -> {
+            Registration registration = registrationService.registerForEvent(event.getId(), queued.get(i).getId());
+            synchronized (registrations) {
+                registrations.add(registration);
+            }
+        });
+        // cancellations promote from the waitlist, then everyone seated is approved in bulk
+        List<Registration> seated = registrations.stream().filter(r -> "PENDING".equals(r.getStatus())).toList();
+        runConcurrently(3, i -> registrationService.cancelRegistration(seated.get(i).getId(), seated.get(i).getUser()));
+        registrationService.updateRegistrationStatuses(registrations.stream().map(Registration::getId).toList(), "APPROVED", admin);
+
+        Map<String, Long> kept = reportRollupService.getTotals(ReportRollupService.REGISTRATIONS_BY_STATUS, today, today);
+        assertEquals(before.getOrDefault("APPROVED", 0L) + seats, kept.get("APPROVED"));
+        assertEquals(before.getOrDefault(RegistrationService.WAITLISTED, 0L) + students - seats - 3,
+                kept.get(RegistrationService.WAITLISTED));
+
+        // then the waitlist is rejected event-wide while some of it cancels
+        List<Registration> waiting = registrationRepository.findByEvent(event).stream()
+                .filter(r -> RegistrationService.WAITLISTED.equals(r.getStatus())).toList();
+        runConcurrently(4, i -> {
+            if (i == 0) {
+                registrationService.updateRegistrationStatuses(event.getId(), RegistrationService.WAITLISTED, "REJECTED", admin);
+            } else {
+                registrationService.cancelRegistration(waiting.get(i).getId(), waiting.get(i).getUser());
+            }
+        });
+        kept = reportRollupService.getTotals(ReportRollupService.REGISTRATIONS_BY_STATUS, today, today);
+        assertEquals(before.getOrDefault("REJECTED", 0L) + students - seats - 6, kept.get("REJECTED"));
+
+        reportRollupService.reconcile(today.minusDays(1), today.plusDays(30));
+        assertEquals(kept, reportRollupService.getTotals(ReportRollupService.REGISTRATIONS_BY_STATUS, today, today));
+    }
+
+    private long runConcurrently(int tasks, IntTask task) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(tasks);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < tasks; i++) {
+                int n = i;
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    task.run(n);
+                    return null;
+                }));
+            }
+            long began = System.nanoTime();
+            start.countDown();
+            for (Future<?> f : futures) {
+                f.get(2, TimeUnit.MINUTES);
+            }
+            return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - began);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private User newUser(String username) {
+        User user = new User();
+        user.setUsername(username);
+        user.setPassword("secret");
+        user.setEmail(username + "@college.test");
+        user.setFullName(username);
+        user.setRole("STUDENT");
+        return userRepository.save(user);
+    }
+
+    private Event newEvent(User organizer, int seats) {
+        Event event = new Event();
+        event.setTitle("Fest Pass Drop");
+        event.setDescription("Limited seats");
+        event.setVenue("Main Auditorium");
+        event.setEventDate(LocalDateTime.now().plusDays(7));
+        event.setMaxParticipants(seats);
+        event.setCreatedBy(organizer);
+        return eventRepository.save(event);
+    }
+
+    @FunctionalInterface
+    private interface IntTask {
+        void run(int i);
+    }
+}